@@ -1,27 +1,69 @@
 package com.ftdi;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ftdi.codec.DelimiterFrameDecoder;
+import com.ftdi.codec.FrameDecoder;
+import com.ftdi.codec.FrameHandler;
+import com.ftdi.utils.BufferPool;
+import com.ftdi.utils.BufferPool.PooledBuffer;
+import com.ftdi.utils.ByteRingBuffer;
 import com.ftdi.utils.ByteUtils;
+import com.ftdi.utils.Lease;
+import com.ftdi.utils.ThreadFactories;
 
 public abstract class AbstractDataHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDataHandler.class);
 
+    public static final int DEFAULT_RING_BUFFER_CAPACITY = 64 * 1024;
+
+    public static final int DEFAULT_POOL_BUFFER_COUNT = 32;
+
+    public static final int DEFAULT_POOL_BUFFER_SIZE = 4096;
+
+    public static final int DEFAULT_EVENT_CHAR_MAX_FRAME_LENGTH = 4096;
+
+    private static final long RECEIVE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     protected byte[] inputBuffer = new byte[2048];
 
-    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+    // the space of the buffer that the last receive could fill, a full read leaves bytes in the driver queue
+    private int receiveCapacity;
+
+    private DeliveryMode deliveryMode = DeliveryMode.QUEUE;
+
+    private int ringBufferCapacity = DEFAULT_RING_BUFFER_CAPACITY;
+
+    private ByteRingBuffer ringBuffer;
+
+    private ByteBuffer ringBufferView;
+
+    private ByteBuffer inputBufferView;
+
+    private int poolBufferCount = DEFAULT_POOL_BUFFER_COUNT;
+
+    private int poolBufferSize = DEFAULT_POOL_BUFFER_SIZE;
+
+    private BufferPool bufferPool;
+
+    private BlockingQueue<PooledBuffer> pooledReceiveQueue;
 
     private AtomicBoolean receiverRunning = new AtomicBoolean();
 
-    private BlockingQueue<byte[]> receiveQueue = new LinkedBlockingQueue<>();
+    private ReceiveQueue receiveQueue = new ReceiveQueue();
 
     private AtomicLong receiveQueueWorkerThreadId = new AtomicLong();
 
@@ -31,6 +73,35 @@ public abstract class AbstractDataHandler {
 
     private Thread receiverThread;
 
+    private WaitStrategy waitStrategy = WaitStrategies.event();
+
+    private BatchMode batchMode;
+
+    private int maxBatchChunks;
+
+    private long maxBatchDelayNanos;
+
+    private ThreadFactory workerThreadFactory = ThreadFactories.platformThreadFactory("receiveQueueWorker", true);
+
+    private ThreadFactory closeThreadFactory = ThreadFactories.platformThreadFactory("FTDI-ClosePort", true);
+
+    private volatile FrameDecoder frameDecoder;
+
+    private boolean eventCharAligned;
+
+    private int eventCharMaxFrameLength = DEFAULT_EVENT_CHAR_MAX_FRAME_LENGTH;
+
+    private boolean eventCharDecoderInstalled;
+
+    private final FrameHandler frameHandler = frame -> {
+        try {
+            processMessages(frame);
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Process received frame failed.", ex);
+        }
+    };
+
     private FTDevice device;
 
     protected abstract void createEventHandle();
@@ -43,6 +114,49 @@ public abstract class AbstractDataHandler {
 
     protected abstract void processMessages(byte[] bytes);
 
+    /**
+     * Process the received bytes between position and limit of the buffer. The buffer is only valid during the call and
+     * must not be kept. Subclasses that use {@link DeliveryMode#RING_BUFFER} or {@link DeliveryMode#INLINE} should
+     * override this method to process the bytes without allocation. The default implementation copies the bytes and
+     * calls {@link #processMessages(byte[])}.
+     *
+     * @param data
+     *            the received bytes
+     */
+    protected void processMessages(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        processMessages(bytes);
+    }
+
+    /**
+     * Process a batch of received chunks, used with {@link BatchMode#LIST}. The list is only valid during the call and
+     * must not be kept. The default implementation calls {@link #processMessages(byte[])} for every chunk.
+     *
+     * @param chunks
+     *            the received chunks in the order of arrival
+     */
+    protected void processMessages(List<byte[]> chunks) {
+        for (byte[] chunk : chunks) {
+            processMessages(chunk);
+        }
+    }
+
+    /**
+     * Process the received bytes between position and limit of a pooled buffer, used with {@link DeliveryMode#POOLED}.
+     * The buffer returns to the pool when this method returns. To keep the buffer, call {@link Lease#retain()} and
+     * return it later with {@link Lease#release(long)}. The default implementation calls
+     * {@link #processMessages(ByteBuffer)}.
+     *
+     * @param data
+     *            the received bytes
+     * @param lease
+     *            the lease of the buffer
+     */
+    protected void processMessages(ByteBuffer data, Lease lease) {
+        processMessages(data);
+    }
+
     protected abstract void closeHandle();
 
     protected void configureDevice(final FTDevice ftDevice) throws FTD2XXException {
@@ -61,6 +175,325 @@ public abstract class AbstractDataHandler {
         return this.device;
     }
 
+    /**
+     * Set the delivery mode. Must be called before {@link #startReceiverAndQueues()}.
+     *
+     * @param deliveryMode
+     *            the delivery mode
+     */
+    public void setDeliveryMode(DeliveryMode deliveryMode) {
+        this.deliveryMode = deliveryMode;
+    }
+
+    public DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    /**
+     * Set the capacity of the ring buffer used with {@link DeliveryMode#RING_BUFFER}. Must be called before
+     * {@link #startReceiverAndQueues()}.
+     *
+     * @param ringBufferCapacity
+     *            the capacity in bytes, rounded up to the next power of two
+     */
+    public void setRingBufferCapacity(int ringBufferCapacity) {
+        this.ringBufferCapacity = ringBufferCapacity;
+    }
+
+    /**
+     * Set the strategy of the receiver thread to wait for data. By default the receiver waits for the event of the
+     * handler. Must be called before {@link #startReceiverAndQueues()}.
+     *
+     * @param waitStrategy
+     *            the wait strategy
+     * @see WaitStrategies
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Set the thread factory for the receive queue worker. Must be called before {@link #startReceiverAndQueues()}. By
+     * default the worker is a daemon platform thread, so an unclosed handler does not keep the JVM alive. The
+     * receiver thread is always a platform thread, see {@link #createReceiverThread()}, because it blocks in native
+     * calls of the driver.
+     *
+     * @param workerThreadFactory
+     *            the thread factory
+     */
+    public void setWorkerThreadFactory(ThreadFactory workerThreadFactory) {
+        this.workerThreadFactory = workerThreadFactory;
+    }
+
+    /**
+     * Set the thread factory for the threads that close the port after a fatal error.
+     *
+     * @param closeThreadFactory
+     *            the thread factory
+     */
+    public void setCloseThreadFactory(ThreadFactory closeThreadFactory) {
+        this.closeThreadFactory = closeThreadFactory;
+    }
+
+    /**
+     * Use virtual threads for the receive queue worker and the close tasks if the runtime supports them (Java 21+).
+     * Otherwise the platform threads are kept.
+     *
+     * @return {@code true} if virtual threads are used
+     */
+    public boolean useVirtualThreads() {
+        ThreadFactory workerFactory = ThreadFactories.virtualThreadFactory("receiveQueueWorker");
+        ThreadFactory closeFactory = ThreadFactories.virtualThreadFactory("FTDI-ClosePort");
+        if (workerFactory == null || closeFactory == null) {
+            LOGGER.warn("Virtual threads are not supported by the runtime, keep the platform threads.");
+            return false;
+        }
+        this.workerThreadFactory = workerFactory;
+        this.closeThreadFactory = closeFactory;
+        return true;
+    }
+
+    /**
+     * Bound the receive queue used with {@link DeliveryMode#QUEUE}. By default the receive queue is unbounded. Must be
+     * called before {@link #startReceiverAndQueues()}.
+     *
+     * @param maxChunks
+     *            the maximum number of queued chunks
+     * @param maxBytes
+     *            the maximum number of queued bytes
+     * @param overflowPolicy
+     *            the behavior if a received chunk does not fit
+     */
+    public void setReceiveQueueCapacity(int maxChunks, long maxBytes, OverflowPolicy overflowPolicy) {
+        this.receiveQueue = new ReceiveQueue(maxChunks, maxBytes, overflowPolicy);
+    }
+
+    /**
+     * Enable the batch delivery for {@link DeliveryMode#QUEUE}. The receive queue worker collects all pending chunks up
+     * to the maximum batch size and delivers them with a single callback. After the first chunk of a batch, the worker
+     * waits up to the maximum delay for more chunks. Must be called before {@link #startReceiverAndQueues()}.
+     *
+     * @param batchMode
+     *            the batch mode or {@code null} to deliver every chunk separately
+     * @param maxBatchChunks
+     *            the maximum number of chunks in a batch
+     * @param maxDelay
+     *            the maximum time to wait for more chunks, {@code 0} to deliver the pending chunks only
+     * @param unit
+     *            the unit of the maximum delay
+     */
+    public void setBatchDelivery(BatchMode batchMode, int maxBatchChunks, long maxDelay, TimeUnit unit) {
+        if (batchMode != null && maxBatchChunks <= 0) {
+            throw new IllegalArgumentException("The maximum batch size must be positive!");
+        }
+        this.batchMode = batchMode;
+        this.maxBatchChunks = maxBatchChunks;
+        this.maxBatchDelayNanos = unit.toNanos(maxDelay);
+    }
+
+    /**
+     * @return the maximum number of bytes that were queued in the receive queue
+     */
+    public long getReceiveQueueHighWaterBytes() {
+        return receiveQueue.getHighWaterBytes();
+    }
+
+    /**
+     * @return the maximum number of chunks that were queued in the receive queue
+     */
+    public int getReceiveQueueHighWaterChunks() {
+        return receiveQueue.getHighWaterChunks();
+    }
+
+    /**
+     * @return the number of bytes that were dropped because the receive queue was full
+     */
+    public long getDroppedBytes() {
+        return receiveQueue.getDroppedBytes();
+    }
+
+    /**
+     * @return the number of chunks that were dropped because the receive queue was full
+     */
+    public long getDroppedChunks() {
+        return receiveQueue.getDroppedChunks();
+    }
+
+    /**
+     * Set the number and size of the buffers used with {@link DeliveryMode#POOLED}. Must be called before
+     * {@link #startReceiverAndQueues()}.
+     *
+     * @param bufferCount
+     *            the number of buffers in the pool
+     * @param bufferSize
+     *            the size of each buffer in bytes
+     */
+    public void setBufferPool(int bufferCount, int bufferSize) {
+        this.poolBufferCount = bufferCount;
+        this.poolBufferSize = bufferSize;
+    }
+
+    /**
+     * Set the decoder that splits the received bytes into frames. If a decoder is set, only complete frames are
+     * delivered with {@link #processMessages(ByteBuffer)}, one call per frame. This applies to all delivery modes; with
+     * {@link DeliveryMode#POOLED} the buffer returns to the pool after decoding and with {@link BatchMode#LIST} every
+     * chunk of the batch is decoded in order. Must be called before {@link #startReceiverAndQueues()}.
+     *
+     * @param frameDecoder
+     *            the frame decoder or {@code null} to deliver the received chunks
+     */
+    public void setFrameDecoder(FrameDecoder frameDecoder) {
+        this.frameDecoder = frameDecoder;
+    }
+
+    public FrameDecoder getFrameDecoder() {
+        return frameDecoder;
+    }
+
+    /**
+     * Align the deliveries to the event character of the device, see {@link FTDevice#setChars(byte, byte, byte, byte)}.
+     * Every delivery with {@link #processMessages(ByteBuffer)} then ends exactly with the event character, and the bytes
+     * after the last event character of a read are kept until the rest of the frame arrives. Together with a low latency
+     * timer the chip flushes every frame as soon as the event character arrives, so every frame causes one wakeup and
+     * one delivery.
+     * <p>
+     * The event character is taken from the device when the receiver starts, so it can be set in
+     * {@link #configureDevice(FTDevice)}. If the event character is not enabled, the received chunks are delivered
+     * unchanged. Must be called before {@link #startReceiverAndQueues()}.
+     *
+     * @param eventCharAligned
+     *            {@code true} to align the deliveries to the event character
+     * @param maxFrameLength
+     *            the maximum length of a frame including the event character, longer frames are discarded
+     */
+    public void setEventCharAligned(boolean eventCharAligned, int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("The maximum frame length must be positive!");
+        }
+        this.eventCharAligned = eventCharAligned;
+        this.eventCharMaxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Align the deliveries to the event character of the device with the default maximum frame length.
+     *
+     * @param eventCharAligned
+     *            {@code true} to align the deliveries to the event character
+     * @see #setEventCharAligned(boolean, int)
+     */
+    public void setEventCharAligned(boolean eventCharAligned) {
+        setEventCharAligned(eventCharAligned, DEFAULT_EVENT_CHAR_MAX_FRAME_LENGTH);
+    }
+
+    private void installEventCharDecoder(final FTDevice ftDevice) {
+        if (!eventCharAligned) {
+            return;
+        }
+        if (frameDecoder != null) {
+            LOGGER.warn("A frame decoder is set already, the deliveries are not aligned to the event character.");
+            return;
+        }
+        if (!ftDevice.isEventCharEnabled()) {
+            LOGGER.warn("The event character is not enabled on the device, the deliveries are not aligned.");
+            return;
+        }
+
+        LOGGER.info("Align the deliveries to the event character: {}", ftDevice.getEventChar() & 0xFF);
+        frameDecoder = new DelimiterFrameDecoder(ftDevice.getEventChar(), eventCharMaxFrameLength);
+        eventCharDecoderInstalled = true;
+    }
+
+    /**
+     * @return the number of times the receiver found the buffer pool exhausted
+     */
+    public long getPoolExhaustedCount() {
+        return bufferPool != null ? bufferPool.getExhaustedCount() : 0;
+    }
+
+    /**
+     * Read the received bytes from the device. In {@link DeliveryMode#QUEUE} the bytes are stored in
+     * {@link #inputBuffer}, in {@link DeliveryMode#RING_BUFFER} the bytes are stored directly in the ring buffer and in
+     * {@link DeliveryMode#POOLED} the bytes are stored directly in a pooled buffer.
+     *
+     * @param ftDevice
+     *            the device
+     * @param maxLength
+     *            the maximum number of bytes to read
+     * @return the number of bytes read
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    protected int receive(final FTDevice ftDevice, int maxLength) throws FTD2XXException {
+        switch (deliveryMode) {
+            case RING_BUFFER:
+                return receiveIntoRingBuffer(ftDevice, maxLength);
+            case POOLED:
+                return receiveIntoPooledBuffer(ftDevice, maxLength);
+            default:
+                receiveCapacity = inputBuffer.length;
+                return ftDevice.read(inputBuffer, 0, Math.min(maxLength, inputBuffer.length));
+        }
+    }
+
+    private int receiveIntoPooledBuffer(final FTDevice ftDevice, int maxLength) throws FTD2XXException {
+        PooledBuffer pooledBuffer = null;
+        try {
+            while ((pooledBuffer = bufferPool.acquire(RECEIVE_WAIT_NANOS, TimeUnit.NANOSECONDS)) == null) {
+                if (!receiverRunning.get()) {
+                    return 0;
+                }
+                LOGGER.debug("The buffer pool is exhausted, wait for a released buffer.");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        final long stamp = pooledBuffer.stamp();
+        int len = 0;
+        try {
+            ByteBuffer buffer = pooledBuffer.buffer();
+            receiveCapacity = buffer.capacity();
+            buffer.limit(Math.min(maxLength, buffer.capacity()));
+            len = ftDevice.read(buffer, pooledBuffer.pointer());
+            if (len > 0) {
+                buffer.flip();
+                pooledReceiveQueue.offer(pooledBuffer);
+            }
+        }
+        finally {
+            if (len <= 0) {
+                pooledBuffer.release(stamp);
+            }
+        }
+        return len;
+    }
+
+    private int receiveIntoRingBuffer(final FTDevice ftDevice, int maxLength) throws FTD2XXException {
+        final ByteRingBuffer ringBuffer = this.ringBuffer;
+        try {
+            while (ringBuffer.awaitWritable(RECEIVE_WAIT_NANOS) == 0) {
+                if (!receiverRunning.get()) {
+                    return 0;
+                }
+                LOGGER.debug("The ring buffer is full, wait for the receive queue worker.");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        receiveCapacity = ringBuffer.writableContiguous();
+        int len = Math.min(maxLength, receiveCapacity);
+        len = ftDevice.read(ringBuffer.array(), ringBuffer.writeOffset(), len);
+        if (len > 0) {
+            ringBuffer.commitWrite(len);
+        }
+        return len;
+    }
+
     public class ReceiverThread extends Thread {
         public ReceiverThread() {
             super("FTDI-Receiver");
@@ -75,6 +508,10 @@ public abstract class AbstractDataHandler {
 
             final FTDevice ftDevice = getFTDevice();
 
+            final WaitStrategy waitStrategy = AbstractDataHandler.this.waitStrategy;
+
+            final WaitStrategy.EventWaiter eventWaiter = AbstractDataHandler.this::waitForNotificationEvent;
+
             try {
                 configureDevice(ftDevice);
             }
@@ -84,6 +521,8 @@ public abstract class AbstractDataHandler {
                 return;
             }
 
+            installEventCharDecoder(ftDevice);
+
             LOGGER.info("Started the receiver thread.");
 
             createEventHandle();
@@ -99,12 +538,19 @@ public abstract class AbstractDataHandler {
                 return;
             }
 
+            boolean dataPending = false;
+
             while (receiverRunning.get()) {
 
                 try {
                     LOGGER.debug("Try to read data");
 
-                    waitForNotificationEvent(ftDevice);
+                    // the event is not signaled again for bytes that are already queued in the driver
+                    if (!dataPending) {
+                        waitStrategy.await(ftDevice, eventWaiter);
+                    }
+                    dataPending = false;
+                    receiveCapacity = 0;
 
                     int len = readData(ftDevice);
 
@@ -122,22 +568,20 @@ public abstract class AbstractDataHandler {
                         }
                     }
 
-                    if (len > 0) {
-                        output.write(inputBuffer, 0, len);
-
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER
-                                .debug("<<<< len: {}, data: {}", output.size(),
-                                    ByteUtils.bytesToHex(output.toByteArray()));
-                        }
-
-                        addDataToReceiveQueue(output);
-
-                        if (output != null && output.size() > 0) {
-                            LOGGER.warn("Data in output: {}", output.toString());
+                    if (len > 0 && deliveryMode == DeliveryMode.INLINE) {
+                        deliverInline(len);
+                    }
+                    else if (len > 0 && deliveryMode == DeliveryMode.QUEUE) {
+                        if (!addDataToReceiveQueue(inputBuffer, len)
+                            && receiveQueue.getOverflowPolicy() == OverflowPolicy.FAIL) {
+                            LOGGER.error("The receive queue is full. Close the port.");
+                            handleFatalError(ftDevice);
                         }
-
                     }
+
+                    // a read that filled the receive buffer may have left bytes in the driver queue, read them before
+                    // waiting for the next event. A short read emptied the queue, no status call is needed.
+                    dataPending = len > 0 && len == receiveCapacity && receiverRunning.get();
                 }
                 catch (FTD2XXException ex) {
                     LOGGER.warn("Receive data failed with an exception!", ex);
@@ -161,6 +605,38 @@ public abstract class AbstractDataHandler {
         }
     }
 
+    private void deliverInline(int len) {
+        if (inputBufferView == null || inputBufferView.array() != inputBuffer) {
+            inputBufferView = ByteBuffer.wrap(inputBuffer);
+        }
+        inputBufferView.clear();
+        inputBufferView.limit(len);
+        try {
+            dispatch(inputBufferView);
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Process received bytes failed.", ex);
+        }
+    }
+
+    private void dispatch(ByteBuffer data) {
+        if (frameDecoder != null) {
+            frameDecoder.decode(data, frameHandler);
+        }
+        else {
+            processMessages(data);
+        }
+    }
+
+    private void dispatch(byte[] bytes) {
+        if (frameDecoder != null) {
+            frameDecoder.decode(ByteBuffer.wrap(bytes), frameHandler);
+        }
+        else {
+            processMessages(bytes);
+        }
+    }
+
     protected void handleFatalError(final FTDevice ftDevice) {
         receiverRunning.set(false);
 
@@ -192,6 +668,19 @@ public abstract class AbstractDataHandler {
             stopReceiverThread();
             stopReceiveQueueWorker();
 
+            receiveQueue.clear();
+            if (ringBuffer != null) {
+                ringBuffer.clear();
+            }
+            if (eventCharDecoderInstalled) {
+                // the event character is taken from the device again on the next start
+                frameDecoder = null;
+                eventCharDecoderInstalled = false;
+            }
+            else if (frameDecoder != null) {
+                frameDecoder.reset();
+            }
+
             long end = System.currentTimeMillis();
             LOGGER.info("Closed the port. duration: {}", end - start);
 
@@ -204,7 +693,7 @@ public abstract class AbstractDataHandler {
 
     protected void triggerClosePort() {
         LOGGER.warn("Close the port.");
-        Thread worker = new Thread(() -> {
+        Thread worker = closeThreadFactory.newThread(() -> {
 
             LOGGER.info("Start close port because error was detected.");
             try {
@@ -220,7 +709,16 @@ public abstract class AbstractDataHandler {
     }
 
     public void startReceiverAndQueues() {
-        LOGGER.info("Start receiver and queues.");
+        LOGGER.info("Start receiver and queues, deliveryMode: {}", deliveryMode);
+
+        if (deliveryMode == DeliveryMode.RING_BUFFER && ringBuffer == null) {
+            ringBuffer = new ByteRingBuffer(ringBufferCapacity);
+            ringBufferView = ByteBuffer.wrap(ringBuffer.array());
+        }
+        if (deliveryMode == DeliveryMode.POOLED && bufferPool == null) {
+            bufferPool = new BufferPool(poolBufferCount, poolBufferSize);
+            pooledReceiveQueue = new ArrayBlockingQueue<>(poolBufferCount);
+        }
 
         if (receiverThread == null) {
             receiverThread = createReceiverThread();
@@ -228,19 +726,36 @@ public abstract class AbstractDataHandler {
 
         receiverThread.start();
 
-        startReceiveQueueWorker();
+        if (deliveryMode != DeliveryMode.INLINE) {
+            startReceiveQueueWorker();
+        }
     }
 
     private void startReceiveQueueWorker() {
         receiverRunning.set(true);
 
         LOGGER.info("Start the receiveQueueWorker. Current receiveQueueWorker: {}", receiveQueueWorker);
-        receiveQueueWorker = new Thread(new Runnable() {
+        receiveQueueWorker = workerThreadFactory.newThread(new Runnable() {
 
             @Override
             public void run() {
                 try {
-                    processReceiveQueue();
+                    switch (deliveryMode) {
+                        case RING_BUFFER:
+                            processRingBuffer();
+                            break;
+                        case POOLED:
+                            processPooledReceiveQueue();
+                            break;
+                        default:
+                            if (batchMode != null) {
+                                processReceiveQueueBatched();
+                            }
+                            else {
+                                processReceiveQueue();
+                            }
+                            break;
+                    }
                 }
                 catch (Exception ex) {
                     LOGGER.warn("The processing of the receive queue was terminated with an exception!", ex);
@@ -248,7 +763,7 @@ public abstract class AbstractDataHandler {
 
                 LOGGER.info("Process receive queue has finished.");
             }
-        }, "receiveQueueWorker");
+        });
 
         try {
             receiveQueueWorkerThreadId.set(receiveQueueWorker.getId());
@@ -265,6 +780,10 @@ public abstract class AbstractDataHandler {
         LOGGER.info("Stop the receive queue worker.");
         receiverRunning.set(false);
 
+        if (receiveQueueWorker == null) {
+            return;
+        }
+
         try {
             receiveQueueWorker.interrupt();
 
@@ -291,7 +810,7 @@ public abstract class AbstractDataHandler {
                     // process
                     try {
 
-                        processMessages(bytes);
+                        dispatch(bytes);
                     }
                     catch (Exception ex) {
                         LOGGER.warn("Process received bytes failed.", ex);
@@ -313,6 +832,150 @@ public abstract class AbstractDataHandler {
         receiveQueueWorkerThreadId.set(0);
     }
 
+    private void processReceiveQueueBatched() {
+        LOGGER
+            .info("The receiveQueueWorker is ready for processing batches, batchMode: {}, requestedPortName: {}",
+                batchMode, requestedPortName);
+
+        final List<byte[]> batch = new ArrayList<>(Math.min(maxBatchChunks, 1024));
+        ByteBuffer concatenated = ByteBuffer.allocate(inputBuffer.length);
+
+        while (receiverRunning.get()) {
+            try {
+                batch.add(receiveQueue.take());
+                receiveQueue.drainTo(batch, maxBatchChunks - batch.size());
+
+                if (maxBatchDelayNanos > 0) {
+                    final long deadline = System.nanoTime() + maxBatchDelayNanos;
+                    while (batch.size() < maxBatchChunks) {
+                        byte[] chunk = receiveQueue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (chunk == null) {
+                            break;
+                        }
+                        batch.add(chunk);
+                        receiveQueue.drainTo(batch, maxBatchChunks - batch.size());
+                    }
+                }
+
+                try {
+                    if (batchMode == BatchMode.LIST) {
+                        if (frameDecoder != null) {
+                            for (byte[] chunk : batch) {
+                                dispatch(chunk);
+                            }
+                        }
+                        else {
+                            processMessages(batch);
+                        }
+                    }
+                    else {
+                        int total = 0;
+                        for (byte[] chunk : batch) {
+                            total += chunk.length;
+                        }
+                        if (concatenated.capacity() < total) {
+                            concatenated = ByteBuffer.allocate(Math.max(total, concatenated.capacity() * 2));
+                        }
+                        concatenated.clear();
+                        for (byte[] chunk : batch) {
+                            concatenated.put(chunk);
+                        }
+                        concatenated.flip();
+                        dispatch(concatenated);
+                    }
+                }
+                catch (Exception ex) {
+                    LOGGER.warn("Process received bytes failed.", ex);
+                }
+            }
+            catch (InterruptedException ex) {
+                LOGGER.warn("Get message from receiveQueue failed because thread was interrupted.");
+            }
+            finally {
+                batch.clear();
+            }
+        }
+
+        LOGGER.info("The receiveQueueWorker has finished processing, requestedPortName: {}", requestedPortName);
+        receiveQueueWorkerThreadId.set(0);
+    }
+
+    private void processRingBuffer() {
+        LOGGER.info("The receiveQueueWorker is ready for processing the ring buffer, requestedPortName: {}",
+            requestedPortName);
+
+        final ByteRingBuffer ringBuffer = this.ringBuffer;
+        final ByteBuffer view = this.ringBufferView;
+
+        while (receiverRunning.get()) {
+            try {
+                if (ringBuffer.awaitReadable(RECEIVE_WAIT_NANOS) == 0) {
+                    continue;
+                }
+
+                int offset = ringBuffer.readOffset();
+                int len = ringBuffer.readableContiguous();
+
+                view.clear();
+                view.limit(offset + len);
+                view.position(offset);
+                try {
+                    dispatch(view);
+                }
+                catch (Exception ex) {
+                    LOGGER.warn("Process received bytes failed.", ex);
+                }
+                finally {
+                    ringBuffer.commitRead(len);
+                }
+            }
+            catch (InterruptedException ex) {
+                LOGGER.warn("Wait for data in the ring buffer failed because thread was interrupted.");
+            }
+        }
+
+        LOGGER.info("The receiveQueueWorker has finished processing, requestedPortName: {}", requestedPortName);
+        receiveQueueWorkerThreadId.set(0);
+    }
+
+    private void processPooledReceiveQueue() {
+        LOGGER.info("The receiveQueueWorker is ready for processing pooled buffers, requestedPortName: {}",
+            requestedPortName);
+
+        while (receiverRunning.get()) {
+            try {
+                PooledBuffer pooledBuffer = pooledReceiveQueue.take();
+                final long stamp = pooledBuffer.stamp();
+                try {
+                    if (frameDecoder != null) {
+                        dispatch(pooledBuffer.buffer());
+                    }
+                    else {
+                        processMessages(pooledBuffer.buffer(), pooledBuffer);
+                    }
+                }
+                catch (Exception ex) {
+                    LOGGER.warn("Process received bytes failed.", ex);
+                }
+                finally {
+                    pooledBuffer.releaseIfNotRetained(stamp);
+                }
+            }
+            catch (InterruptedException ex) {
+                LOGGER.warn("Get buffer from pooledReceiveQueue failed because thread was interrupted.");
+            }
+        }
+
+        // return the unprocessed buffers to the pool
+        PooledBuffer pooledBuffer;
+        while ((pooledBuffer = pooledReceiveQueue.poll()) != null) {
+            pooledBuffer.release(pooledBuffer.stamp());
+        }
+
+        LOGGER.info("The receiveQueueWorker has finished processing, requestedPortName: {}", requestedPortName);
+        receiveQueueWorkerThreadId.set(0);
+    }
+
     private void stopReceiverThread() {
         LOGGER.info("Stop the receiver thread by set the running flag to false.");
         receiverRunning.set(false);
@@ -338,25 +1001,31 @@ public abstract class AbstractDataHandler {
         }
     }
 
-    private void addDataToReceiveQueue(final ByteArrayOutputStream output) {
+    private boolean addDataToReceiveQueue(final byte[] data, int len) throws InterruptedException {
 
-        byte[] bytes = output.toByteArray();
-
-        byte[] buffer = new byte[bytes.length];
-        System.arraycopy(bytes, 0, buffer, 0, bytes.length);
+        byte[] buffer = Arrays.copyOf(data, len);
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER
-                .debug("<<<< len: {}, data: {}, string: {}", bytes.length, ByteUtils.bytesToHex(buffer),
-                    new String(bytes));
+                .debug("<<<< len: {}, data: {}, string: {}", buffer.length, ByteUtils.bytesToHex(buffer),
+                    new String(buffer));
         }
 
-        boolean added = receiveQueue.offer(buffer);
-        if (!added) {
-            LOGGER.error("The message was not added to the receive queue: {}", ByteUtils.bytesToHex(buffer));
+        boolean added = receiveQueue.offer(buffer, RECEIVE_WAIT_NANOS);
+        while (!added && receiveQueue.getOverflowPolicy() == OverflowPolicy.BLOCK) {
+            if (!receiverRunning.get()) {
+                receiveQueue.dropped(buffer.length);
+                break;
+            }
+            LOGGER.debug("The receive queue is full, wait for the receive queue worker.");
+            added = receiveQueue.offer(buffer, RECEIVE_WAIT_NANOS);
         }
 
-        output.reset();
+        if (!added) {
+            // the drops are counted by the receive queue, see getDroppedChunks()
+            LOGGER.debug("The message was not added to the receive queue, len: {}", buffer.length);
+        }
+        return added;
     }
 
 }
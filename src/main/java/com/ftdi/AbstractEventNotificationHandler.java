@@ -1,7 +1,5 @@
 package com.ftdi;
 
-import java.util.EnumSet;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,27 +8,28 @@ public abstract class AbstractEventNotificationHandler<T> extends AbstractDataHa
 
     protected T eventHandle;
 
+    private final DeviceQueueStatus queueStatus = new DeviceQueueStatus();
+
     @Override
     protected int readData(final FTDevice ftDevice) throws FTD2XXException {
         // LOGGER.info("After wait for read data");
         int len = -1;
-        int[] status = ftDevice.getStatus();
+        final DeviceQueueStatus status = ftDevice.getStatus(queueStatus);
 
-        if ((status[2]
-            & FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS) == FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS) {
+        if (status.isEvent(FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS)) {
 
-            LOGGER.info("Received modem or line status event: {}", status[2]);
+            LOGGER.info("Received modem or line status event: {}", status.getEventStatus());
 
-            final EnumSet<DeviceStatus> deviceStatusSet = ftDevice.getDeviceStatus();
+            final int modemStatus = ftDevice.getModemStatus();
 
-            if (deviceStatusSet.contains(DeviceStatus.CTS)) {
+            if (ModemStatus.isCts(modemStatus)) {
                 LOGGER.info(">>>> CTS is high.");
             }
             else {
                 LOGGER.info(">>>> CTS is low.");
             }
 
-            if (deviceStatusSet.contains(DeviceStatus.DSR)) {
+            if (ModemStatus.isDsr(modemStatus)) {
                 LOGGER.info(">>>> DSR is high.");
             }
             else {
@@ -39,10 +38,10 @@ public abstract class AbstractEventNotificationHandler<T> extends AbstractDataHa
 
         }
 
-        int available = status[0];
+        int available = status.getAmountInRxQueue();
 
         if (available > 0) {
-            len = ftDevice.read(inputBuffer, 0, available);
+            len = receive(ftDevice, available);
 
             LOGGER.info("Read len: {}", len);
         }
@@ -0,0 +1,18 @@
+package com.ftdi;
+
+/**
+ * The way a batch of received chunks is delivered by a {@link AbstractDataHandler} with batch delivery enabled.
+ */
+public enum BatchMode {
+
+    /**
+     * The chunks of a batch are concatenated into a single buffer and delivered with
+     * {@link AbstractDataHandler#processMessages(java.nio.ByteBuffer)}.
+     */
+    CONCATENATED,
+
+    /**
+     * The chunks of a batch are delivered as list with {@link AbstractDataHandler#processMessages(java.util.List)}.
+     */
+    LIST;
+}
@@ -0,0 +1,37 @@
+package com.ftdi;
+
+/**
+ * The way the data received by a {@link AbstractDataHandler} is handed over to the processing.
+ */
+public enum DeliveryMode {
+
+    /**
+     * Every received chunk is copied into a new array and queued for the receive queue worker. This is the default.
+     */
+    QUEUE,
+
+    /**
+     * The receiver reads directly into a preallocated ring buffer, the receive queue worker delivers views of the ring
+     * buffer with {@link AbstractDataHandler#processMessages(java.nio.ByteBuffer)}. No allocation happens on the
+     * receive path. If the ring buffer is full, the receiver waits for the worker.
+     */
+    RING_BUFFER,
+
+    /**
+     * The receiver reads directly into a buffer acquired from a preallocated pool, the receive queue worker delivers
+     * the buffer with {@link AbstractDataHandler#processMessages(java.nio.ByteBuffer, com.ftdi.utils.Lease)}. The
+     * buffer returns to the pool when the callback returns, unless the callback retains the lease. If the pool is
+     * exhausted, the receiver waits for a released buffer.
+     */
+    POOLED,
+
+    /**
+     * The receiver thread calls {@link AbstractDataHandler#processMessages(java.nio.ByteBuffer)} directly with a view
+     * of the input buffer, no queue and no receive queue worker are used. This gives the lowest latency, e.g. for
+     * request/response protocols.
+     * <p>
+     * The callback must not block and must return quickly: while it runs no data is read from the device. The buffer
+     * is only valid during the call and must not be kept.
+     */
+    INLINE;
+}
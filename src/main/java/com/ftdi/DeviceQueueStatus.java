@@ -0,0 +1,56 @@
+package com.ftdi;
+
+/**
+ * Mutable holder for the queue and event status of a device. An instance can be passed to
+ * {@link FTDevice#getStatus(DeviceQueueStatus)} repeatedly to poll the status without allocation.
+ */
+public class DeviceQueueStatus {
+
+    private int amountInRxQueue;
+
+    private int amountInTxQueue;
+
+    private int eventStatus;
+
+    /**
+     * @return the number of bytes in the receive queue
+     */
+    public int getAmountInRxQueue() {
+        return amountInRxQueue;
+    }
+
+    /**
+     * @return the number of bytes in the transmit queue
+     */
+    public int getAmountInTxQueue() {
+        return amountInTxQueue;
+    }
+
+    /**
+     * @return the event status bits, see {@link FTD2XX.NotificationEvents}
+     */
+    public int getEventStatus() {
+        return eventStatus;
+    }
+
+    /**
+     * @param event
+     *            the event bit, e.g. {@link FTD2XX.NotificationEvents#FT_EVENT_MODEM_STATUS}
+     * @return {@code true} if the event bit is set
+     */
+    public boolean isEvent(int event) {
+        return (eventStatus & event) == event;
+    }
+
+    void set(int amountInRxQueue, int amountInTxQueue, int eventStatus) {
+        this.amountInRxQueue = amountInRxQueue;
+        this.amountInTxQueue = amountInTxQueue;
+        this.eventStatus = eventStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceQueueStatus{" + "amountInRxQueue=" + amountInRxQueue + ", amountInTxQueue=" + amountInTxQueue
+            + ", eventStatus=" + eventStatus + '}';
+    }
+}
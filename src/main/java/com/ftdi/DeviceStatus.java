@@ -23,11 +23,11 @@
  */
 package com.ftdi;
 
-import java.util.ArrayList;
 import java.util.EnumSet;
 
 /**
- * Modem and line statuses of device.
+ * Modem and line statuses of device. The constants of the line statuses are located in the second byte of the status
+ * returned by the device, see {@link ModemStatus}.
  * 
  * @author Peter Kocsis <p. kocsis. 2. 7182 at gmail.com>
  */
@@ -36,35 +36,37 @@ public enum DeviceStatus {
     /**
      * Clear To Send
      */
-    CTS(0x10, "Clear To Send"),
+    CTS(ModemStatus.CTS, "Clear To Send"),
     /**
      * Data Set Ready
      */
-    DSR(0x20, "Data Set Ready"),
+    DSR(ModemStatus.DSR, "Data Set Ready"),
     /**
      * Ring Indicator
      */
-    RI(0x40, "Ring Indicator"),
+    RI(ModemStatus.RI, "Ring Indicator"),
     /**
      * Data Carrier Detect
      */
-    DCD(0x80, "Data Carrier Detect"),
+    DCD(ModemStatus.DCD, "Data Carrier Detect"),
     /**
      * Overrun Error
      */
-    OE(0x02, "Overrun Error"),
+    OE(ModemStatus.OE, "Overrun Error"),
     /**
      * Parity Error
      */
-    PE(0x04, "Parity Error"),
+    PE(ModemStatus.PE, "Parity Error"),
     /**
      * Framing Error
      */
-    FE(0x08, "Framing Error"),
+    FE(ModemStatus.FE, "Framing Error"),
     /**
      * Break Interrupt
      */
-    BI(0x10, "Break Interrupt");
+    BI(ModemStatus.BI, "Break Interrupt");
+
+    private static final DeviceStatus[] VALUES = values();
 
     private final int constant;
 
@@ -80,17 +82,13 @@ public enum DeviceStatus {
     }
 
     static EnumSet<DeviceStatus> parseToEnumset(int val) {
-        ArrayList<DeviceStatus> enu = new ArrayList<DeviceStatus>();
-        for (DeviceStatus curr : DeviceStatus.values()) {
+        EnumSet<DeviceStatus> enu = EnumSet.noneOf(DeviceStatus.class);
+        for (DeviceStatus curr : VALUES) {
             if ((curr.constant() & val) != 0) {
                 enu.add(curr);
             }
         }
-
-        if (enu.isEmpty()) {
-            return EnumSet.noneOf(DeviceStatus.class);
-        }
-        return EnumSet.copyOf(enu);
+        return enu;
     }
 
     @Override
@@ -49,6 +49,8 @@ public interface FTD2XX extends Library {
 
     static class Loader {
 
+        private static String nativeName;
+
         private Loader() {
         }
 
@@ -73,7 +75,20 @@ public interface FTD2XX extends Library {
             return libraryPathBuilder.toString() + System.mapLibraryName(libraryName);
         }
 
-        static String getNative() {
+        /**
+         * Returns the name of the extracted native library. The library is extracted only once, so the interface
+         * mapping and the direct mapping share the same native library.
+         *
+         * @return the library name
+         */
+        static synchronized String getNative() {
+            if (nativeName == null) {
+                nativeName = extractNative();
+            }
+            return nativeName;
+        }
+
+        private static String extractNative() {
             InputStream in = null;
             FileOutputStream fos = null;
             File fileOut = null;
@@ -0,0 +1,77 @@
+package com.ftdi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+
+/**
+ * Direct mapped binding of the D2XX functions that are called on the transfer path. Direct mapped calls avoid the proxy
+ * dispatch and reflective argument conversion of the interface mapping in {@link FTD2XX}.
+ * <p>
+ * The binding is registered on class initialization. If the registration fails, or the system property
+ * {@code ftd2xx.directMapping} is set to {@code false}, {@link #isRegistered()} returns {@code false} and the callers
+ * must fall back to {@link FTD2XX#INSTANCE}.
+ * <p>
+ * The out parameters are passed as {@link Pointer} to a DWORD, e.g. the pointer of an
+ * {@link com.sun.jna.ptr.IntByReference}.
+ */
+final class FTD2XXDirect {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FTD2XXDirect.class);
+
+    public static final String PROPERTY_DIRECT_MAPPING = "ftd2xx.directMapping";
+
+    private static final boolean REGISTERED = register();
+
+    private FTD2XXDirect() {
+    }
+
+    private static boolean register() {
+        if (!Boolean.parseBoolean(System.getProperty(PROPERTY_DIRECT_MAPPING, "true"))) {
+            LOGGER.info("The direct mapping of the D2XX library is disabled.");
+            return false;
+        }
+
+        try {
+            Native.register(FTD2XXDirect.class, NativeLibrary.getInstance(FTD2XX.Loader.getNative()));
+            LOGGER.info("Registered the direct mapping of the D2XX library.");
+            return true;
+        }
+        catch (Error ex) {
+            LOGGER.warn("Register the direct mapping of the D2XX library failed. Use the interface mapping.", ex);
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the direct mapping is registered and can be used
+     */
+    static boolean isRegistered() {
+        return REGISTERED;
+    }
+
+    /**
+     * @see FTD2XX#FT_Read(Pointer, Pointer, int, com.sun.jna.ptr.IntByReference)
+     */
+    static native int FT_Read(Pointer ftHandle, Pointer lpBuffer, int dwBytesToRead, Pointer lpdwBytesReturned);
+
+    /**
+     * @see FTD2XX#FT_Write(Pointer, Pointer, int, com.sun.jna.ptr.IntByReference)
+     */
+    static native int FT_Write(Pointer ftHandle, Pointer lpBuffer, int dwBytesToWrite, Pointer lpdwBytesWritten);
+
+    /**
+     * @see FTD2XX#FT_GetQueueStatus(Pointer, com.sun.jna.ptr.IntByReference)
+     */
+    static native int FT_GetQueueStatus(Pointer ftHandle, Pointer lpdwAmountInRxQueue);
+
+    /**
+     * @see FTD2XX#FT_GetStatus(Pointer, com.sun.jna.ptr.IntByReference, com.sun.jna.ptr.IntByReference,
+     *      com.sun.jna.ptr.IntByReference)
+     */
+    static native int FT_GetStatus(
+        Pointer ftHandle, Pointer lpdwAmountInRxQueue, Pointer lpdwAmountInTxQueue, Pointer lpdwEventStatus);
+}
@@ -26,14 +26,18 @@ package com.ftdi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sun.jna.Memory;
+import com.sun.jna.Native;
 import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.ByteByReference;
@@ -51,6 +55,11 @@ public class FTDevice {
 
     static private final FTD2XX ftd2xx = FTD2XX.INSTANCE;
 
+    /**
+     * Initial size of the native transfer buffers. The buffers grow on demand to the next power of two.
+     */
+    private static final int MIN_TRANSFER_BUFFER_SIZE = 512;
+
     private final int devID, devLocationID, flag;
 
     private final DeviceType devType;
@@ -65,8 +74,44 @@ public class FTDevice {
 
     private FTDeviceOutputStream fTDeviceOutputStream = null;
 
+    private FTDeviceChannel fTDeviceChannel = null;
+
     private boolean open = false;
 
+    private volatile long readTimeout;
+
+    private volatile long writeTimeout;
+
+    private volatile byte eventChar;
+
+    private volatile boolean eventCharEnabled;
+
+    private final Object readLock = new Object();
+
+    private final Object writeLock = new Object();
+
+    private Memory readBuffer;
+
+    private Memory writeBuffer;
+
+    private ByteBuffer readView;
+
+    private ByteBuffer writeView;
+
+    private final IntByReference bytesRead = new IntByReference();
+
+    private final IntByReference bytesWritten = new IntByReference();
+
+    private final Object statusLock = new Object();
+
+    private final IntByReference amountInRxQueue = new IntByReference();
+
+    private final IntByReference amountInTxQueue = new IntByReference();
+
+    private final IntByReference eventStatus = new IntByReference();
+
+    private final IntByReference modemStatus = new IntByReference();
+
     private FTDevice(DeviceType devType, int devID, int devLocationID, String devSerialNumber, String devDescription,
         Pointer ftHandle, int flag) {
         this.devType = devType;
@@ -181,6 +226,64 @@ public class FTDevice {
         }
     }
 
+    /**
+     * Make sure the provided native buffer can hold at least {@code size} bytes. The buffer is only replaced if it is
+     * too small, so the steady state transfer path does not allocate.
+     *
+     * @param buffer
+     *            the current buffer or {@code null}
+     * @param size
+     *            the required size in bytes
+     * @return the buffer to use
+     */
+    private static Memory ensureCapacity(Memory buffer, int size) {
+        if (buffer != null && buffer.size() >= size) {
+            return buffer;
+        }
+
+        long capacity = buffer != null ? buffer.size() : MIN_TRANSFER_BUFFER_SIZE;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+
+        if (buffer != null) {
+            // the caller holds the transfer lock, so nobody else uses the old buffer
+            buffer.close();
+        }
+        return new Memory(capacity);
+    }
+
+    private static int ftRead(Pointer ftHandle, Pointer buffer, int length, IntByReference read) {
+        if (FTD2XXDirect.isRegistered()) {
+            return FTD2XXDirect.FT_Read(ftHandle, buffer, length, read.getPointer());
+        }
+        return ftd2xx.FT_Read(ftHandle, buffer, length, read);
+    }
+
+    private static int ftWrite(Pointer ftHandle, Pointer buffer, int length, IntByReference wrote) {
+        if (FTD2XXDirect.isRegistered()) {
+            return FTD2XXDirect.FT_Write(ftHandle, buffer, length, wrote.getPointer());
+        }
+        return ftd2xx.FT_Write(ftHandle, buffer, length, wrote);
+    }
+
+    private static int ftGetQueueStatus(Pointer ftHandle, IntByReference amountInRxQueue) {
+        if (FTD2XXDirect.isRegistered()) {
+            return FTD2XXDirect.FT_GetQueueStatus(ftHandle, amountInRxQueue.getPointer());
+        }
+        return ftd2xx.FT_GetQueueStatus(ftHandle, amountInRxQueue);
+    }
+
+    private static int ftGetStatus(
+        Pointer ftHandle, IntByReference amountInRxQueue, IntByReference amountInTxQueue, IntByReference eventStatus) {
+        if (FTD2XXDirect.isRegistered()) {
+            return FTD2XXDirect
+                .FT_GetStatus(ftHandle, amountInRxQueue.getPointer(), amountInTxQueue.getPointer(),
+                    eventStatus.getPointer());
+        }
+        return ftd2xx.FT_GetStatus(ftHandle, amountInRxQueue, amountInTxQueue, eventStatus);
+    }
+
     private static FTDevice getXthDevice(int Xth) throws FTD2XXException {
         IntByReference flag = new IntByReference();
         IntByReference devType = new IntByReference();
@@ -440,7 +543,8 @@ public class FTDevice {
     }
 
     /**
-     * Set the read and write timeouts for the device.
+     * Set the read and write timeouts for the device. Waits until a read in progress has finished, see
+     * {@link #readFully(ByteBuffer, Duration)}.
      *
      * @param readTimeout
      *            Read timeout in milliseconds.
@@ -450,7 +554,11 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public void setTimeouts(long readTimeout, long writeTimeout) throws FTD2XXException {
-        ensureFTStatus(ftd2xx.FT_SetTimeouts(ftHandle, (int) readTimeout, (int) writeTimeout));
+        synchronized (readLock) {
+            ensureFTStatus(ftd2xx.FT_SetTimeouts(ftHandle, (int) readTimeout, (int) writeTimeout));
+            this.readTimeout = readTimeout;
+            this.writeTimeout = writeTimeout;
+        }
     }
 
     /**
@@ -523,9 +631,22 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public EnumSet<DeviceStatus> getDeviceStatus() throws FTD2XXException {
-        IntByReference modstat = new IntByReference();
-        ensureFTStatus(ftd2xx.FT_GetModemStatus(ftHandle, modstat));
-        return DeviceStatus.parseToEnumset(modstat.getValue());
+        return DeviceStatus.parseToEnumset(getModemStatus());
+    }
+
+    /**
+     * Gets the modem status and line status from the device without allocation. The modem status is located in the low
+     * byte, the line status in the second byte. Use the helpers of {@link ModemStatus} to evaluate the bits.
+     *
+     * @return Modem and line statuses
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public int getModemStatus() throws FTD2XXException {
+        synchronized (statusLock) {
+            ensureFTStatus(ftd2xx.FT_GetModemStatus(ftHandle, modemStatus));
+            return modemStatus.getValue();
+        }
     }
 
     /**
@@ -536,9 +657,10 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public int getQueueStatus() throws FTD2XXException {
-        IntByReference reference = new IntByReference();
-        ensureFTStatus(ftd2xx.FT_GetQueueStatus(ftHandle, reference));
-        return reference.getValue();
+        synchronized (statusLock) {
+            ensureFTStatus(ftGetQueueStatus(ftHandle, amountInRxQueue));
+            return amountInRxQueue.getValue();
+        }
     }
 
     /**
@@ -549,12 +671,30 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public int[] getStatus() throws FTD2XXException {
-        IntByReference lpdwAmountInRxQueue = new IntByReference();
-        IntByReference lpdwAmountInTxQueue = new IntByReference();
-        IntByReference lpdwEventStatus = new IntByReference();
-        ensureFTStatus(ftd2xx.FT_GetStatus(ftHandle, lpdwAmountInRxQueue, lpdwAmountInTxQueue, lpdwEventStatus));
+        synchronized (statusLock) {
+            ensureFTStatus(ftGetStatus(ftHandle, amountInRxQueue, amountInTxQueue, eventStatus));
 
-        return new int[] { lpdwAmountInRxQueue.getValue(), lpdwAmountInTxQueue.getValue(), lpdwEventStatus.getValue() };
+            return new int[] { amountInRxQueue.getValue(), amountInTxQueue.getValue(), eventStatus.getValue() };
+        }
+    }
+
+    /**
+     * Gets the number of bytes in the receive and transmit queue and the current event status of the device. The
+     * provided holder is filled in place, so the status can be polled without allocation.
+     *
+     * @param status
+     *            the holder to fill
+     * @return the provided holder
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public DeviceQueueStatus getStatus(DeviceQueueStatus status) throws FTD2XXException {
+        synchronized (statusLock) {
+            ensureFTStatus(ftGetStatus(ftHandle, amountInRxQueue, amountInTxQueue, eventStatus));
+
+            status.set(amountInRxQueue.getValue(), amountInTxQueue.getValue(), eventStatus.getValue());
+        }
+        return status;
     }
 
     /**
@@ -706,6 +846,23 @@ public class FTDevice {
     public void setChars(byte uEventChar, byte uEventCharEn, byte uErrorChar, byte uErrorCharEn)
         throws FTD2XXException {
         ensureFTStatus(ftd2xx.FT_SetChars(ftHandle, uEventChar, uEventCharEn, uErrorChar, uErrorCharEn));
+
+        this.eventChar = uEventChar;
+        this.eventCharEnabled = uEventCharEn != 0;
+    }
+
+    /**
+     * @return the event character set with {@link #setChars(byte, byte, byte, byte)}
+     */
+    public byte getEventChar() {
+        return eventChar;
+    }
+
+    /**
+     * @return {@code true} if the event character was enabled with {@link #setChars(byte, byte, byte, byte)}
+     */
+    public boolean isEventCharEnabled() {
+        return eventCharEnabled;
     }
 
     /**
@@ -933,13 +1090,101 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public int write(byte[] bytes, int offset, int length) throws FTD2XXException {
-        Memory memory = new Memory(length);
-        memory.write(0, bytes, offset, length);
-        IntByReference wrote = new IntByReference();
+        synchronized (writeLock) {
+            writeBuffer = ensureCapacity(writeBuffer, length);
+            writeBuffer.write(0, bytes, offset, length);
+
+            ensureFTStatus(ftWrite(ftHandle, writeBuffer, length, bytesWritten));
+
+            return bytesWritten.getValue();
+        }
+    }
+
+    /**
+     * Write the remaining bytes of the buffer to the device. If the buffer is direct, its memory is passed to the driver
+     * without an intermediate copy. The position of the buffer is advanced by the number of bytes actually written.
+     *
+     * @param src
+     *            Buffer with the bytes to send between position and limit
+     * @return Number of bytes actually written
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public int write(ByteBuffer src) throws FTD2XXException {
+        int position = src.position();
+        int length = src.remaining();
+        int wrote;
+
+        if (src.isDirect()) {
+            Pointer pointer = Native.getDirectBufferPointer(src).share(position);
+            synchronized (writeLock) {
+                ensureFTStatus(ftWrite(ftHandle, pointer, length, bytesWritten));
+                wrote = bytesWritten.getValue();
+            }
+        }
+        else if (src.hasArray()) {
+            wrote = write(src.array(), src.arrayOffset() + position, length);
+        }
+        else {
+            // read-only heap buffer
+            synchronized (writeLock) {
+                writeBuffer = ensureCapacity(writeBuffer, length);
+                for (int i = 0; i < length; i++) {
+                    writeBuffer.setByte(i, src.get(position + i));
+                }
+                ensureFTStatus(ftWrite(ftHandle, writeBuffer, length, bytesWritten));
+                wrote = bytesWritten.getValue();
+            }
+        }
+
+        src.position(position + wrote);
+        return wrote;
+    }
+
+    /**
+     * Write the remaining bytes of the buffers to the device with a single transfer. The buffers are copied into the
+     * native write buffer of the device and sent with one call of FT_Write. The positions of the buffers are advanced
+     * by the number of bytes actually written.
+     *
+     * @param srcs
+     *            Buffers with the bytes to send
+     * @param offset
+     *            Index of the first buffer
+     * @param length
+     *            Number of buffers
+     * @return Number of bytes actually written
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    long write(ByteBuffer[] srcs, int offset, int length) throws FTD2XXException {
+        int total = remaining(srcs, offset, length);
 
-        ensureFTStatus(ftd2xx.FT_Write(ftHandle, memory, length, wrote));
+        synchronized (writeLock) {
+            writeBuffer = ensureCapacity(writeBuffer, total);
+            if (writeView == null || writeView.capacity() != writeBuffer.size()) {
+                writeView = writeBuffer.getByteBuffer(0, writeBuffer.size());
+            }
 
-        return wrote.getValue();
+            int index = 0;
+            for (int i = offset; i < offset + length; i++) {
+                ByteBuffer src = srcs[i];
+                int remaining = src.remaining();
+                writeView.put(index, src, src.position(), remaining);
+                index += remaining;
+            }
+
+            ensureFTStatus(ftWrite(ftHandle, writeBuffer, total, bytesWritten));
+
+            int wrote = bytesWritten.getValue();
+            int left = wrote;
+            for (int i = offset; i < offset + length && left > 0; i++) {
+                ByteBuffer src = srcs[i];
+                int consumed = Math.min(left, src.remaining());
+                src.position(src.position() + consumed);
+                left -= consumed;
+            }
+            return wrote;
+        }
     }
 
     /**
@@ -964,9 +1209,14 @@ public class FTDevice {
      * @throws FTD2XXException
      */
     public boolean write(int b) throws FTD2XXException {
-        byte[] c = new byte[1];
-        c[0] = (byte) b;
-        return (write(c) == 1) ? true : false;
+        synchronized (writeLock) {
+            writeBuffer = ensureCapacity(writeBuffer, 1);
+            writeBuffer.setByte(0, (byte) b);
+
+            ensureFTStatus(ftWrite(ftHandle, writeBuffer, 1, bytesWritten));
+
+            return bytesWritten.getValue() == 1;
+        }
     }
 
     /**
@@ -983,14 +1233,130 @@ public class FTDevice {
      *             If something goes wrong.
      */
     public int read(byte[] bytes, int offset, int lenght) throws FTD2XXException {
-        Memory memory = new Memory(lenght);
-        IntByReference read = new IntByReference();
+        synchronized (readLock) {
+            readBuffer = ensureCapacity(readBuffer, lenght);
+
+            ensureFTStatus(ftRead(ftHandle, readBuffer, lenght, bytesRead));
+
+            int read = bytesRead.getValue();
+            readBuffer.read(0, bytes, offset, read);
+
+            return read;
+        }
+    }
+
+    /**
+     * Read bytes from device into the remaining space of the buffer. If the buffer is direct, the driver writes into its
+     * memory without an intermediate copy. The position of the buffer is advanced by the number of bytes actually read.
+     *
+     * @param dst
+     *            Buffer to store the read bytes between position and limit
+     * @return Number of bytes actually read
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public int read(ByteBuffer dst) throws FTD2XXException {
+        if (dst.isReadOnly()) {
+            throw new IllegalArgumentException("Read-only buffer");
+        }
+
+        int position = dst.position();
+        int length = dst.remaining();
+        int read;
+
+        if (dst.isDirect()) {
+            Pointer pointer = Native.getDirectBufferPointer(dst).share(position);
+            synchronized (readLock) {
+                ensureFTStatus(ftRead(ftHandle, pointer, length, bytesRead));
+                read = bytesRead.getValue();
+            }
+        }
+        else {
+            read = read(dst.array(), dst.arrayOffset() + position, length);
+        }
+
+        dst.position(position + read);
+        return read;
+    }
+
+    /**
+     * Read bytes from device into the remaining space of a direct buffer whose native address is known, e.g. a buffer
+     * of a {@link com.ftdi.utils.BufferPool}. Unlike {@link #read(ByteBuffer)} no pointer is created for a read at
+     * position 0. The position of the buffer is advanced by the number of bytes actually read.
+     *
+     * @param dst
+     *            Direct buffer to store the read bytes between position and limit
+     * @param address
+     *            The native address of the buffer, see {@link Native#getDirectBufferPointer(java.nio.Buffer)}
+     * @return Number of bytes actually read
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public int read(ByteBuffer dst, Pointer address) throws FTD2XXException {
+        if (!dst.isDirect() || dst.isReadOnly()) {
+            throw new IllegalArgumentException("Not a writable direct buffer");
+        }
+
+        int position = dst.position();
+        Pointer pointer = position == 0 ? address : address.share(position);
+        int read;
+        synchronized (readLock) {
+            ensureFTStatus(ftRead(ftHandle, pointer, dst.remaining(), bytesRead));
+            read = bytesRead.getValue();
+        }
+
+        dst.position(position + read);
+        return read;
+    }
+
+    /**
+     * Read bytes from device into the remaining space of the buffers with a single transfer. The bytes are read into
+     * the native read buffer of the device with one call of FT_Read and distributed over the buffers in order. The
+     * positions of the buffers are advanced by the number of bytes stored.
+     *
+     * @param dsts
+     *            Buffers to store the read bytes
+     * @param offset
+     *            Index of the first buffer
+     * @param length
+     *            Number of buffers
+     * @return Number of bytes actually read
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    long read(ByteBuffer[] dsts, int offset, int length) throws FTD2XXException {
+        int total = remaining(dsts, offset, length);
 
-        ensureFTStatus(ftd2xx.FT_Read(ftHandle, memory, lenght, read));
+        synchronized (readLock) {
+            readBuffer = ensureCapacity(readBuffer, total);
+            if (readView == null || readView.capacity() != readBuffer.size()) {
+                readView = readBuffer.getByteBuffer(0, readBuffer.size());
+            }
 
-        memory.read(0, bytes, offset, lenght);
+            ensureFTStatus(ftRead(ftHandle, readBuffer, total, bytesRead));
 
-        return read.getValue();
+            int read = bytesRead.getValue();
+            int index = 0;
+            for (int i = offset; i < offset + length && index < read; i++) {
+                ByteBuffer dst = dsts[i];
+                int stored = Math.min(read - index, dst.remaining());
+                dst.put(dst.position(), readView, index, stored);
+                dst.position(dst.position() + stored);
+                index += stored;
+            }
+            return read;
+        }
+    }
+
+    private static int remaining(ByteBuffer[] buffers, int offset, int length) {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            total += buffers[i].remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many bytes for a single transfer: " + total);
+        }
+        return (int) total;
     }
 
     /**
@@ -1013,9 +1379,13 @@ public class FTDevice {
      * @throws FTD2XXException
      */
     public int read() throws FTD2XXException {
-        byte[] c = new byte[1];
-        int ret = read(c);
-        return (ret == 1) ? (c[0] & 0xFF) : -1;
+        synchronized (readLock) {
+            readBuffer = ensureCapacity(readBuffer, 1);
+
+            ensureFTStatus(ftRead(ftHandle, readBuffer, 1, bytesRead));
+
+            return (bytesRead.getValue() == 1) ? (readBuffer.getByte(0) & 0xFF) : -1;
+        }
     }
 
     /**
@@ -1040,6 +1410,96 @@ public class FTDevice {
         }
     }
 
+    /**
+     * Read from device until the buffer is full or the timeout has elapsed. The bytes already in the receive queue are
+     * read at once, for the missing bytes the read timeout of the device is set to the remaining time and restored
+     * afterwards. The position of the buffer is advanced by the number of bytes read.
+     *
+     * @param dst
+     *            Buffer to store the read bytes between position and limit
+     * @param timeout
+     *            The maximum time to wait for the bytes
+     * @return {@code true} if the buffer was filled, {@code false} if the timeout has elapsed before
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    public boolean readFully(ByteBuffer dst, Duration timeout) throws FTD2XXException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+
+        synchronized (readLock) {
+            // setTimeouts() holds the read lock, the timeouts do not change while the lock is held
+            final long readTimeout = this.readTimeout;
+            final long writeTimeout = this.writeTimeout;
+            long appliedTimeout = readTimeout;
+            boolean completed = false;
+            try {
+                while (dst.hasRemaining()) {
+                    int available = getQueueStatus();
+                    if (available >= dst.remaining()) {
+                        read(dst);
+                        continue;
+                    }
+
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        if (available > 0) {
+                            int limit = dst.limit();
+                            dst.limit(dst.position() + available);
+                            read(dst);
+                            dst.limit(limit);
+                        }
+                        break;
+                    }
+
+                    // let the driver wait for the missing bytes until the deadline
+                    long remainingMillis =
+                        Math.min(Integer.MAX_VALUE, Math.max(1, (remainingNanos + 999_999) / 1_000_000));
+                    if (remainingMillis != appliedTimeout) {
+                        ensureFTStatus(ftd2xx.FT_SetTimeouts(ftHandle, (int) remainingMillis, (int) writeTimeout));
+                        appliedTimeout = remainingMillis;
+                    }
+                    read(dst);
+                }
+                completed = true;
+            }
+            finally {
+                if (appliedTimeout != readTimeout) {
+                    int ftStatus = ftd2xx.FT_SetTimeouts(ftHandle, (int) readTimeout, (int) writeTimeout);
+                    if (completed) {
+                        ensureFTStatus(ftStatus);
+                    }
+                    else if (ftStatus != FT_STATUS.OK.constant()) {
+                        // do not hide the exception of the read
+                        LOGGER.warn("Restore the read timeout failed with status: {}", ftStatus);
+                    }
+                }
+            }
+        }
+        return !dst.hasRemaining();
+    }
+
+    /**
+     * Read exactly the given number of bytes from device.
+     *
+     * @param number
+     *            How many bytes do you want to read?
+     * @param timeout
+     *            The maximum time to wait for the bytes
+     * @return Read bytes
+     * @throws FTD2XXException
+     *             If something goes wrong or the timeout has elapsed before all bytes were read.
+     */
+    public byte[] readExactly(int number, Duration timeout) throws FTD2XXException {
+        byte[] bytes = new byte[number];
+        ByteBuffer dst = ByteBuffer.wrap(bytes);
+        if (!readFully(dst, timeout)) {
+            throw new FTD2XXException(
+                "Read timed out after " + timeout.toMillis() + " ms, received " + dst.position() + " of " + number
+                    + " bytes.");
+        }
+        return bytes;
+    }
+
     /**
      * Get an InputStream to device.
      *
@@ -1053,7 +1513,8 @@ public class FTDevice {
     }
 
     /**
-     * Get an OutputStream to device.
+     * Get an OutputStream to device. Every write is sent to the device immediately, use
+     * {@link #getOutputStream(int, long, TimeUnit)} to coalesce small writes.
      *
      * @return OutputStream
      */
@@ -1064,6 +1525,35 @@ public class FTDevice {
         return fTDeviceOutputStream;
     }
 
+    /**
+     * Get a new buffered OutputStream to device. The written bytes are sent when the buffer is full, on flush or when
+     * the maximum hold time has elapsed.
+     *
+     * @param bufferSize
+     *            the number of bytes that are collected before they are sent
+     * @param maxHoldTime
+     *            the maximum time a byte is held in the buffer, a value {@code <= 0} disables the timed flush
+     * @param unit
+     *            the unit of the maximum hold time
+     * @return OutputStream
+     */
+    public FTDeviceOutputStream getOutputStream(int bufferSize, long maxHoldTime, TimeUnit unit) {
+        return new FTDeviceOutputStream(this, bufferSize, maxHoldTime, unit);
+    }
+
+    /**
+     * Get a channel to device. The channel supports gathering writes and scattering reads that are transferred with a
+     * single native call.
+     *
+     * @return the channel
+     */
+    public FTDeviceChannel getChannel() {
+        if (fTDeviceChannel == null) {
+            fTDeviceChannel = new FTDeviceChannel(this);
+        }
+        return fTDeviceChannel;
+    }
+
     @Override
     protected void finalize() throws Throwable {
         try {
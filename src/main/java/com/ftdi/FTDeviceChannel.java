@@ -0,0 +1,76 @@
+package com.ftdi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.util.Objects;
+
+/**
+ * Channel view of a {@link FTDevice}. Gathering writes are coalesced into a single transfer, e.g. header, payload and
+ * checksum provided as separate buffers are sent with one call of FT_Write.
+ * <p>
+ * A read returns the bytes delivered by the driver before the read timeout of the device elapses and can return 0.
+ */
+public class FTDeviceChannel implements ByteChannel, GatheringByteChannel, ScatteringByteChannel {
+
+    private final FTDevice device;
+
+    FTDeviceChannel(FTDevice device) {
+        this.device = device;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        return device.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, dsts.length);
+        ensureOpen();
+        return device.read(dsts, offset, length);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts) throws IOException {
+        return read(dsts, 0, dsts.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        ensureOpen();
+        return device.write(src);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, srcs.length);
+        ensureOpen();
+        return device.write(srcs, offset, length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return device.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        device.close();
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!device.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -25,27 +25,81 @@ package com.ftdi;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 /**
+ * Buffered input stream from a device. The bytes available in the receive queue of the device are read ahead into an
+ * internal buffer with a single transfer, single byte and small reads are served from this buffer. A read only blocks
+ * if the buffer is empty and returns -1 if the device is closed.
  *
  * @author Peter Kocsis <p. kocsis. 2. 7182 at gmail.com>
  */
-class FTDeviceInputStream extends InputStream{
+class FTDeviceInputStream extends InputStream {
+
+    static final int DEFAULT_BUFFER_SIZE = 4096;
 
     private final FTDevice device;
 
+    private final byte[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    // the number of buffered bytes, read by available() without the lock that a blocking read holds
+    private volatile int buffered;
+
     FTDeviceInputStream(FTDevice device) {
+        this(device, DEFAULT_BUFFER_SIZE);
+    }
+
+    FTDeviceInputStream(FTDevice device, int bufferSize) {
         this.device = device;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        if (position == limit && fill() < 0) {
+            return -1;
+        }
+        int value = buffer[position++] & 0xFF;
+        buffered = limit - position;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
     }
-    
+
     @Override
-    public int read() throws IOException {
-        return device.read();
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position == limit) {
+            if (len >= buffer.length) {
+                // large read, no need to copy the data through the buffer
+                return readDevice(b, off, len);
+            }
+            if (fill() < 0) {
+                return -1;
+            }
+        }
+
+        int count = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        buffered = limit - position;
+        return count;
     }
 
     @Override
     public int available() throws IOException {
-        return device.getQueueStatus();
+        return buffered + device.getQueueStatus();
     }
 
     @Override
@@ -58,16 +112,41 @@ class FTDeviceInputStream extends InputStream{
         return false;
     }
 
-    @Override
-    public int read(byte[] b) throws IOException {
-        return device.read(b);
+    private int fill() throws IOException {
+        position = 0;
+        limit = 0;
+
+        int count = readDevice(buffer, 0, buffer.length);
+        if (count > 0) {
+            limit = count;
+        }
+        buffered = limit;
+        return count;
     }
 
-    @Override
-    public int read(byte[] b, int off, int len) throws IOException {
-        return device.write(b, off, len);
+    /**
+     * Read the bytes available in the receive queue of the device, or wait for at least one byte if the queue is
+     * empty.
+     *
+     * @return the number of bytes read, or -1 if the device is closed
+     */
+    private int readDevice(byte[] b, int off, int len) throws IOException {
+        while (device.isOpen()) {
+            int available = device.getQueueStatus();
+            if (available > 0) {
+                return device.read(b, off, Math.min(available, len));
+            }
+
+            // wait for the first byte, the driver returns after the read timeout without data
+            int count = device.read(b, off, 1);
+            if (count > 0) {
+                available = device.getQueueStatus();
+                if (available > 0 && len > 1) {
+                    count += device.read(b, off + 1, Math.min(available, len - 1));
+                }
+                return count;
+            }
+        }
+        return -1;
     }
-    
-    
-    
 }
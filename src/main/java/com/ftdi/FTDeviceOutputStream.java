@@ -25,37 +25,272 @@ package com.ftdi;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ftdi.utils.ThreadFactories;
 
 /**
+ * Output stream to a device. The stream of {@link FTDevice#getOutputStream()} writes every call through to the device.
+ * A buffered stream from {@link FTDevice#getOutputStream(int, long, TimeUnit)} collects the written bytes and sends
+ * them with a single transfer when the buffer is full, when {@link #flush()} is called or when the oldest buffered
+ * byte was held for the maximum hold time, whichever comes first.
+ * <p>
+ * The hold time is tracked by a timer that is shared by all streams. The timer never writes to a device itself, it only
+ * hands the flush off to the flush thread of the stream. A stalled device therefore only delays its own stream, and the
+ * write of a stalled flush returns with an exception after the write timeout of the device.
  *
  * @author Peter Kocsis <p. kocsis. 2. 7182 at gmail.com>
  */
-class FTDeviceOutputStream extends OutputStream{
+public class FTDeviceOutputStream extends OutputStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FTDeviceOutputStream.class);
+
+    /**
+     * Suggested buffer size of a buffered stream.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+
+    /**
+     * Suggested maximum hold time of a buffered stream.
+     */
+    public static final long DEFAULT_MAX_HOLD_TIME_MICROS = 2000;
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "FTDI-OutputFlusher");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final FTDevice device;
 
+    // null if the stream writes through
+    private final byte[] buffer;
+
+    private final long maxHoldTimeNanos;
+
+    // flushes the batches after the hold time, the idle thread terminates. null without timed flush
+    private final ThreadPoolExecutor flushExecutor;
+
+    private int count;
+
+    private long batch;
+
+    private long writeCalls;
+
+    private long nativeWrites;
+
+    private IOException pendingException;
+
+    /**
+     * Create a new output stream that writes every call through to the device.
+     *
+     * @param device
+     *            the device
+     */
     FTDeviceOutputStream(FTDevice device) {
         this.device = device;
+        this.buffer = null;
+        this.maxHoldTimeNanos = 0;
+        this.flushExecutor = null;
     }
-    
-    @Override
-    public void write(int b) throws IOException {
-        device.write(b);
+
+    /**
+     * Create a new buffered output stream.
+     *
+     * @param device
+     *            the device
+     * @param bufferSize
+     *            the number of bytes that are collected before they are sent
+     * @param maxHoldTime
+     *            the maximum time a byte is held in the buffer, a value {@code <= 0} disables the timed flush
+     * @param unit
+     *            the unit of the maximum hold time
+     */
+    FTDeviceOutputStream(FTDevice device, int bufferSize, long maxHoldTime, TimeUnit unit) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive!");
+        }
+        this.device = device;
+        this.buffer = new byte[bufferSize];
+        this.maxHoldTimeNanos = unit.toNanos(maxHoldTime);
+        if (maxHoldTimeNanos > 0) {
+            this.flushExecutor =
+                new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    ThreadFactories.platformThreadFactory("FTDI-OutputFlush", true));
+            this.flushExecutor.allowCoreThreadTimeOut(true);
+        }
+        else {
+            this.flushExecutor = null;
+        }
     }
 
     @Override
-    public void close() throws IOException {
-        device.close();
+    public synchronized void write(int b) throws IOException {
+        checkPendingException();
+        writeCalls++;
+
+        if (buffer == null) {
+            nativeWrites++;
+            device.write(b);
+            return;
+        }
+
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        startBatch();
+        buffer[count++] = (byte) b;
+
+        if (count == buffer.length) {
+            flushBuffer();
+        }
     }
 
     @Override
     public void write(byte[] b) throws IOException {
-        device.write(b);
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        checkPendingException();
+        if (len == 0) {
+            return;
+        }
+        writeCalls++;
+
+        if (buffer == null) {
+            nativeWrites++;
+            device.write(b, off, len);
+            return;
+        }
+
+        if (len >= buffer.length) {
+            // too large to buffer, send the buffered bytes and the new bytes directly
+            flushBuffer();
+            writeFully(b, off, len);
+            return;
+        }
+
+        if (len > buffer.length - count) {
+            flushBuffer();
+        }
+        startBatch();
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+
+        if (count == buffer.length) {
+            flushBuffer();
+        }
     }
 
     @Override
-    public void write(byte[] b, int off, int len) throws IOException {
-        device.write(b, off, len);
+    public synchronized void flush() throws IOException {
+        checkPendingException();
+        flushBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            if (flushExecutor != null) {
+                flushExecutor.shutdown();
+            }
+            device.close();
+        }
+    }
+
+    /**
+     * @return the number of write calls on this stream
+     */
+    public synchronized long getWriteCalls() {
+        return writeCalls;
+    }
+
+    /**
+     * @return the number of native writes to the device
+     */
+    public synchronized long getNativeWrites() {
+        return nativeWrites;
+    }
+
+    /**
+     * @return the number of native writes that were saved by coalescing the write calls
+     */
+    public synchronized long getSavedNativeWrites() {
+        return Math.max(0, writeCalls - nativeWrites);
+    }
+
+    private void startBatch() {
+        if (count > 0 || maxHoldTimeNanos <= 0) {
+            return;
+        }
+
+        final long currentBatch = ++batch;
+        // the shared timer must not block on the stream lock or the device
+        FLUSHER.schedule(() -> {
+            try {
+                flushExecutor.execute(() -> flushBatch(currentBatch));
+            }
+            catch (RejectedExecutionException ex) {
+                LOGGER.debug("The stream was closed before the hold time elapsed.");
+            }
+        }, maxHoldTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void flushBatch(long expectedBatch) {
+        if (batch != expectedBatch || count == 0) {
+            // the batch was flushed already
+            return;
+        }
+
+        try {
+            flushBuffer();
+        }
+        catch (IOException ex) {
+            LOGGER.warn("Flush the buffered bytes after the maximum hold time failed.", ex);
+            pendingException = ex;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            int len = count;
+            count = 0;
+            // invalidate the scheduled flush of this batch
+            batch++;
+            writeFully(buffer, 0, len);
+        }
+    }
+
+    private void writeFully(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int wrote = device.write(b, off, len);
+            nativeWrites++;
+            if (wrote <= 0) {
+                throw new FTD2XXException("Write to device timed out, bytes not written: " + len);
+            }
+            off += wrote;
+            len -= wrote;
+        }
+    }
+
+    private void checkPendingException() throws IOException {
+        if (pendingException != null) {
+            IOException ex = pendingException;
+            pendingException = null;
+            throw ex;
+        }
     }
-    
 }
@@ -0,0 +1,234 @@
+package com.ftdi;
+
+/**
+ * Registration of a {@link FTDevice} with a {@link FtdiSelector}. The key holds the operations the caller is interested
+ * in and the operations the device was found ready for by the last selection.
+ */
+public final class FtdiSelectionKey {
+
+    /**
+     * The device has bytes in the receive queue.
+     */
+    public static final int OP_READ = 1 << 0;
+
+    /**
+     * The transmit queue of the device holds fewer bytes than the write threshold.
+     */
+    public static final int OP_WRITE = 1 << 2;
+
+    /**
+     * The modem or line status of the device has changed.
+     */
+    public static final int OP_MODEM_STATUS = 1 << 3;
+
+    static final int ALL_OPS = OP_READ | OP_WRITE | OP_MODEM_STATUS;
+
+    private final FtdiSelector selector;
+
+    private final FTDevice ftDevice;
+
+    private final DeviceQueueStatus status = new DeviceQueueStatus();
+
+    private volatile int interestOps;
+
+    private volatile int writeThreshold;
+
+    private volatile Object attachment;
+
+    private volatile boolean valid = true;
+
+    private int readyOps;
+
+    private int modemStatus;
+
+    private boolean modemStatusPending;
+
+    FtdiSelectionKey(FtdiSelector selector, FTDevice ftDevice, int interestOps, int writeThreshold) {
+        this.selector = selector;
+        this.ftDevice = ftDevice;
+        this.interestOps = checkOps(interestOps);
+        this.writeThreshold = writeThreshold;
+    }
+
+    private static int checkOps(int ops) {
+        if ((ops & ~ALL_OPS) != 0) {
+            throw new IllegalArgumentException("Invalid interest ops: " + ops);
+        }
+        return ops;
+    }
+
+    /**
+     * @return the selector this key is registered with
+     */
+    public FtdiSelector selector() {
+        return selector;
+    }
+
+    /**
+     * @return the device of this key
+     */
+    public FTDevice device() {
+        return ftDevice;
+    }
+
+    /**
+     * @return the interest ops
+     */
+    public int interestOps() {
+        return interestOps;
+    }
+
+    /**
+     * Change the interest ops. The change takes effect with the next selection.
+     *
+     * @param ops
+     *            the new interest ops, a combination of {@link #OP_READ}, {@link #OP_WRITE} and
+     *            {@link #OP_MODEM_STATUS}
+     * @return this key
+     */
+    public FtdiSelectionKey interestOps(int ops) {
+        this.interestOps = checkOps(ops);
+        selector.signal();
+        return this;
+    }
+
+    /**
+     * @return the number of bytes in the transmit queue below which the device is ready for writing
+     */
+    public int getWriteThreshold() {
+        return writeThreshold;
+    }
+
+    /**
+     * @param writeThreshold
+     *            the number of bytes in the transmit queue below which the device is ready for writing
+     */
+    public void setWriteThreshold(int writeThreshold) {
+        if (writeThreshold <= 0) {
+            throw new IllegalArgumentException("The write threshold must be positive!");
+        }
+        this.writeThreshold = writeThreshold;
+    }
+
+    /**
+     * @return the ready ops of the last selection
+     */
+    public int readyOps() {
+        return readyOps;
+    }
+
+    /**
+     * @return {@code true} if the device has bytes in the receive queue
+     */
+    public boolean isReadable() {
+        return (readyOps & OP_READ) != 0;
+    }
+
+    /**
+     * @return {@code true} if the transmit queue of the device is below the write threshold
+     */
+    public boolean isWritable() {
+        return (readyOps & OP_WRITE) != 0;
+    }
+
+    /**
+     * @return {@code true} if the modem or line status of the device has changed
+     */
+    public boolean isModemStatusChanged() {
+        return (readyOps & OP_MODEM_STATUS) != 0;
+    }
+
+    /**
+     * @return the queue status of the device polled by the last selection
+     */
+    public DeviceQueueStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the modem and line status read by the last selection that reported {@link #OP_MODEM_STATUS}, see
+     *         {@link ModemStatus}
+     */
+    public int getModemStatus() {
+        return modemStatus;
+    }
+
+    /**
+     * @param attachment
+     *            the object to attach, may be {@code null}
+     * @return the previously attached object
+     */
+    public Object attach(Object attachment) {
+        Object previous = this.attachment;
+        this.attachment = attachment;
+        return previous;
+    }
+
+    /**
+     * @return the attached object
+     */
+    public Object attachment() {
+        return attachment;
+    }
+
+    /**
+     * @return {@code true} if the key is neither cancelled nor is the selector closed
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Cancel the registration of the device. The event notification of the device is disabled.
+     */
+    public void cancel() {
+        if (valid) {
+            valid = false;
+            selector.cancel(this);
+        }
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Poll the status of the device and compute the ready ops. Must only be called by the selecting thread.
+     *
+     * @param selected
+     *            {@code true} if the key is still in the selected-key set, the new ready ops are added to the previous
+     *            ones in this case
+     * @return the ready ops found by this poll
+     */
+    int poll(boolean selected) throws FTD2XXException {
+        final int ops = interestOps;
+
+        ftDevice.getStatus(status);
+
+        // reading the status resets the event, so a modem status change is kept until it is reported
+        if (status.isEvent(FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS)) {
+            modemStatus = ftDevice.getModemStatus();
+            modemStatusPending = true;
+        }
+
+        int ready = 0;
+        if ((ops & OP_READ) != 0 && status.getAmountInRxQueue() > 0) {
+            ready |= OP_READ;
+        }
+        if ((ops & OP_WRITE) != 0 && status.getAmountInTxQueue() < writeThreshold) {
+            ready |= OP_WRITE;
+        }
+        if ((ops & OP_MODEM_STATUS) != 0 && modemStatusPending) {
+            ready |= OP_MODEM_STATUS;
+            modemStatusPending = false;
+        }
+        readyOps = selected ? readyOps | ready : ready;
+        return ready;
+    }
+
+    @Override
+    public String toString() {
+        return "FtdiSelectionKey{" + "device=" + ftDevice + ", interestOps=" + interestOps + ", readyOps=" + readyOps
+            + ", valid=" + valid + '}';
+    }
+}
@@ -0,0 +1,439 @@
+package com.ftdi;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.unix.PThreadEvent;
+import com.sun.jna.platform.win32.Kernel32;
+import com.sun.jna.platform.win32.WinNT.HANDLE;
+
+/**
+ * Multiplexer for {@link FTDevice}s that works like a {@link java.nio.channels.Selector}. The devices are registered
+ * with the operations the caller is interested in and {@link #select(long)} returns the keys of the devices that are
+ * ready. The selection runs on the calling thread.
+ * <p>
+ * One notification event is registered with all devices, so a selection wakes up as soon as any device receives data
+ * or changes its modem status. The transmit queue does not signal an event, so while any key is interested in
+ * {@link FtdiSelectionKey#OP_WRITE} the devices are polled every {@link #setWritePollInterval(long) poll interval}.
+ * <p>
+ * The selection methods must be called by one thread at a time. Registration, cancellation and {@link #wakeup()} may be
+ * called from any thread.
+ */
+public class FtdiSelector implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtdiSelector.class);
+
+    public static final int DEFAULT_WRITE_THRESHOLD = 1;
+
+    public static final long DEFAULT_WRITE_POLL_INTERVAL_MILLIS = 10;
+
+    private static final long MAX_WAIT_MILLIS = 100;
+
+    private static final int EVENT_MASK =
+        FTD2XX.NotificationEvents.FT_EVENT_RXCHAR | FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS;
+
+    private final CopyOnWriteArrayList<FtdiSelectionKey> keys = new CopyOnWriteArrayList<>();
+
+    private final SelectedKeySet selectedKeys = new SelectedKeySet();
+
+    private final NotificationEvent event;
+
+    private volatile long writePollIntervalMillis = DEFAULT_WRITE_POLL_INTERVAL_MILLIS;
+
+    private volatile boolean wakeupPending;
+
+    private volatile boolean closed;
+
+    /**
+     * Create a new selector.
+     */
+    public FtdiSelector() {
+        this.event = Platform.isWindows() ? new Win32Event() : new PThreadNotificationEvent();
+    }
+
+    /**
+     * @param writePollIntervalMillis
+     *            the interval in milliseconds to poll the transmit queues while a key is interested in
+     *            {@link FtdiSelectionKey#OP_WRITE}
+     */
+    public void setWritePollInterval(long writePollIntervalMillis) {
+        if (writePollIntervalMillis <= 0) {
+            throw new IllegalArgumentException("The poll interval must be positive!");
+        }
+        this.writePollIntervalMillis = writePollIntervalMillis;
+    }
+
+    /**
+     * Register an opened device with this selector.
+     *
+     * @param ftDevice
+     *            the device
+     * @param interestOps
+     *            the interest ops, a combination of {@link FtdiSelectionKey#OP_READ},
+     *            {@link FtdiSelectionKey#OP_WRITE} and {@link FtdiSelectionKey#OP_MODEM_STATUS}
+     * @return the selection key
+     * @throws FTD2XXException
+     *             if the event notification could not be set
+     */
+    public FtdiSelectionKey register(FTDevice ftDevice, int interestOps) throws FTD2XXException {
+        return register(ftDevice, interestOps, DEFAULT_WRITE_THRESHOLD, null);
+    }
+
+    /**
+     * Register an opened device with this selector.
+     *
+     * @param ftDevice
+     *            the device
+     * @param interestOps
+     *            the interest ops, a combination of {@link FtdiSelectionKey#OP_READ},
+     *            {@link FtdiSelectionKey#OP_WRITE} and {@link FtdiSelectionKey#OP_MODEM_STATUS}
+     * @param writeThreshold
+     *            the number of bytes in the transmit queue below which the device is ready for writing
+     * @param attachment
+     *            the object to attach to the key, may be {@code null}
+     * @return the selection key
+     * @throws FTD2XXException
+     *             if the event notification could not be set
+     */
+    public FtdiSelectionKey register(FTDevice ftDevice, int interestOps, int writeThreshold, Object attachment)
+        throws FTD2XXException {
+        ensureOpen();
+        if (writeThreshold <= 0) {
+            throw new IllegalArgumentException("The write threshold must be positive!");
+        }
+        for (FtdiSelectionKey key : keys) {
+            if (key.device() == ftDevice) {
+                throw new IllegalStateException("The device is already registered: " + ftDevice);
+            }
+        }
+
+        FtdiSelectionKey key = new FtdiSelectionKey(this, ftDevice, interestOps, writeThreshold);
+        key.attach(attachment);
+
+        LOGGER.info("SetEventNotification for device: {}", ftDevice);
+        ftDevice.SetEventNotification(event.getPointer(), EVENT_MASK);
+
+        keys.add(key);
+        signal();
+        return key;
+    }
+
+    /**
+     * @return the registered keys
+     */
+    public List<FtdiSelectionKey> keys() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * Get the selected-key set. Like the set of a {@link java.nio.channels.Selector}, the selection only adds keys to
+     * this set, the caller removes the keys it has handled, e.g. with {@link Iterator#remove()} or {@link Set#clear()}.
+     * The set is reused by every selection and must only be used by the selecting thread.
+     *
+     * @return the selected-key set, keys can be removed but not added
+     */
+    public Set<FtdiSelectionKey> selectedKeys() {
+        return selectedKeys;
+    }
+
+    /**
+     * Select the ready devices without waiting.
+     *
+     * @return the number of keys that were found ready
+     * @throws FTD2XXException
+     *             if the status of a device could not be read
+     */
+    public int selectNow() throws FTD2XXException {
+        ensureOpen();
+        wakeupPending = false;
+        return poll();
+    }
+
+    /**
+     * Wait until at least one device is ready, {@link #wakeup()} is called or the timeout has elapsed.
+     *
+     * @param timeoutMillis
+     *            the maximum time to wait in milliseconds, {@code 0} waits without timeout
+     * @return the number of keys that were found ready
+     * @throws FTD2XXException
+     *             if the status of a device could not be read
+     */
+    public int select(long timeoutMillis) throws FTD2XXException {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("The timeout must not be negative!");
+        }
+        ensureOpen();
+
+        final long deadline = timeoutMillis == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+        int ready;
+        while ((ready = poll()) == 0 && !closed) {
+            if (wakeupPending) {
+                break;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            long waitMillis = Math.min(remaining, isWriteInterest() ? writePollIntervalMillis : MAX_WAIT_MILLIS);
+            event.await(waitMillis);
+        }
+        wakeupPending = false;
+        return ready;
+    }
+
+    /**
+     * Wait until at least one device is ready or {@link #wakeup()} is called.
+     *
+     * @return the number of keys that were found ready
+     * @throws FTD2XXException
+     *             if the status of a device could not be read
+     */
+    public int select() throws FTD2XXException {
+        return select(0);
+    }
+
+    /**
+     * Cause the current or the next selection to return immediately.
+     */
+    public void wakeup() {
+        wakeupPending = true;
+        signal();
+    }
+
+    /**
+     * Wake up a waiting selection to poll the devices again, e.g. after the keys have changed.
+     */
+    synchronized void signal() {
+        if (!closed) {
+            event.signal();
+        }
+    }
+
+    private int poll() throws FTD2XXException {
+        selectedKeys.removeCancelled();
+
+        int ready = 0;
+        for (FtdiSelectionKey key : keys) {
+            boolean selected = selectedKeys.contains(key);
+            if (key.poll(selected) != 0) {
+                if (!selected) {
+                    selectedKeys.select(key);
+                }
+                ready++;
+            }
+        }
+        return ready;
+    }
+
+    private boolean isWriteInterest() {
+        for (FtdiSelectionKey key : keys) {
+            if ((key.interestOps() & FtdiSelectionKey.OP_WRITE) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDataAvailable() {
+        if (wakeupPending || closed) {
+            return true;
+        }
+        for (FtdiSelectionKey key : keys) {
+            if ((key.interestOps() & FtdiSelectionKey.OP_READ) == 0) {
+                continue;
+            }
+            try {
+                if (key.device().getQueueStatus() > 0) {
+                    return true;
+                }
+            }
+            catch (FTD2XXException ex) {
+                // the failure is reported by the next poll
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void cancel(FtdiSelectionKey key) {
+        if (keys.remove(key)) {
+            disableNotification(key);
+            signal();
+        }
+    }
+
+    private static void disableNotification(FtdiSelectionKey key) {
+        try {
+            key.device().SetEventNotification(Pointer.NULL, 0);
+        }
+        catch (FTD2XXException ex) {
+            LOGGER.warn("Disable the event notification failed for device: {}", key.device(), ex);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The selector is closed.");
+        }
+    }
+
+    /**
+     * @return {@code true} if the selector is open
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Close the selector. All keys are cancelled and the event notification of the devices is disabled. The devices
+     * are not closed. Must not be called while a selection is in progress.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        LOGGER.info("Close the selector.");
+        closed = true;
+
+        for (FtdiSelectionKey key : keys) {
+            key.invalidate();
+            disableNotification(key);
+        }
+        keys.clear();
+        selectedKeys.clear();
+
+        event.close();
+    }
+
+    private interface NotificationEvent {
+
+        Pointer getPointer();
+
+        void await(long timeoutMillis);
+
+        void signal();
+
+        void close();
+    }
+
+    private final class PThreadNotificationEvent implements NotificationEvent {
+
+        private final PThreadEvent pThreadEvent = new PThreadEvent();
+
+        @Override
+        public Pointer getPointer() {
+            return pThreadEvent.getPointer();
+        }
+
+        @Override
+        public void await(long timeoutMillis) {
+            pThreadEvent.await(timeoutMillis, FtdiSelector.this::isDataAvailable);
+        }
+
+        @Override
+        public void signal() {
+            pThreadEvent.signal();
+        }
+
+        @Override
+        public void close() {
+            pThreadEvent.destroy();
+        }
+    }
+
+    private static final class Win32Event implements NotificationEvent {
+
+        private final Kernel32 kernel32 = Kernel32.INSTANCE;
+
+        private final HANDLE hEvent = kernel32.CreateEvent(null, false, false, null);
+
+        @Override
+        public Pointer getPointer() {
+            return hEvent.getPointer();
+        }
+
+        @Override
+        public void await(long timeoutMillis) {
+            // the auto reset event stays signaled until the wait, so no notification is lost
+            kernel32.WaitForSingleObject(hEvent, (int) Math.min(timeoutMillis, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void signal() {
+            kernel32.SetEvent(hEvent);
+        }
+
+        @Override
+        public void close() {
+            kernel32.CloseHandle(hEvent);
+        }
+    }
+
+    /**
+     * Selected-key set that is backed by a list, so adding a key after the caller has cleared the set does not
+     * allocate. The number of ready keys is small, the linear lookup is cheaper than hashing.
+     */
+    private static final class SelectedKeySet extends AbstractSet<FtdiSelectionKey> {
+
+        private final ArrayList<FtdiSelectionKey> selected = new ArrayList<>();
+
+        private void select(FtdiSelectionKey key) {
+            selected.add(key);
+        }
+
+        private void removeCancelled() {
+            for (int index = selected.size() - 1; index >= 0; index--) {
+                if (!selected.get(index).isValid()) {
+                    selected.remove(index);
+                }
+            }
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int index = 0; index < selected.size(); index++) {
+                if (selected.get(index) == o) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            for (int index = 0; index < selected.size(); index++) {
+                if (selected.get(index) == o) {
+                    selected.remove(index);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            selected.clear();
+        }
+
+        @Override
+        public Iterator<FtdiSelectionKey> iterator() {
+            return selected.iterator();
+        }
+
+        @Override
+        public int size() {
+            return selected.size();
+        }
+    }
+}
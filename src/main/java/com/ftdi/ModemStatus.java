@@ -0,0 +1,115 @@
+package com.ftdi;
+
+/**
+ * Bit constants and helpers to evaluate the combined modem and line status returned by
+ * {@link FTDevice#getModemStatus()}. The modem status is located in the low byte, the line status in the second byte.
+ */
+public final class ModemStatus {
+
+    /**
+     * Clear To Send
+     */
+    public static final int CTS = 0x10;
+
+    /**
+     * Data Set Ready
+     */
+    public static final int DSR = 0x20;
+
+    /**
+     * Ring Indicator
+     */
+    public static final int RI = 0x40;
+
+    /**
+     * Data Carrier Detect
+     */
+    public static final int DCD = 0x80;
+
+    /**
+     * Overrun Error
+     */
+    public static final int OE = 0x02 << 8;
+
+    /**
+     * Parity Error
+     */
+    public static final int PE = 0x04 << 8;
+
+    /**
+     * Framing Error
+     */
+    public static final int FE = 0x08 << 8;
+
+    /**
+     * Break Interrupt
+     */
+    public static final int BI = 0x10 << 8;
+
+    /**
+     * Mask of the line error bits.
+     */
+    public static final int LINE_ERRORS = OE | PE | FE | BI;
+
+    private ModemStatus() {
+    }
+
+    /**
+     * @param status
+     *            the combined modem and line status
+     * @return the modem status byte
+     */
+    public static int modemStatus(int status) {
+        return status & 0xFF;
+    }
+
+    /**
+     * @param status
+     *            the combined modem and line status
+     * @return the line status byte
+     */
+    public static int lineStatus(int status) {
+        return (status >> 8) & 0xFF;
+    }
+
+    public static boolean isCts(int status) {
+        return (status & CTS) != 0;
+    }
+
+    public static boolean isDsr(int status) {
+        return (status & DSR) != 0;
+    }
+
+    public static boolean isRi(int status) {
+        return (status & RI) != 0;
+    }
+
+    public static boolean isDcd(int status) {
+        return (status & DCD) != 0;
+    }
+
+    public static boolean isOverrunError(int status) {
+        return (status & OE) != 0;
+    }
+
+    public static boolean isParityError(int status) {
+        return (status & PE) != 0;
+    }
+
+    public static boolean isFramingError(int status) {
+        return (status & FE) != 0;
+    }
+
+    public static boolean isBreakInterrupt(int status) {
+        return (status & BI) != 0;
+    }
+
+    /**
+     * @param status
+     *            the combined modem and line status
+     * @return {@code true} if any line error bit is set
+     */
+    public static boolean hasLineError(int status) {
+        return (status & LINE_ERRORS) != 0;
+    }
+}
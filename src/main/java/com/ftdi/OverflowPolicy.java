@@ -0,0 +1,28 @@
+package com.ftdi;
+
+/**
+ * The behavior of a bounded receive queue of a {@link AbstractDataHandler} if a received chunk does not fit.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The receiver waits until the queue has space. The receive buffer of the device fills up and hardware flow
+     * control, if configured, stops the sender.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued chunks are dropped until the new chunk fits.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new chunk is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The new chunk is dropped and the port is closed.
+     */
+    FAIL;
+}
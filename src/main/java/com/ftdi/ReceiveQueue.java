@@ -0,0 +1,256 @@
+package com.ftdi;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Receive queue of a {@link AbstractDataHandler} that is bounded by the number of chunks and the number of bytes. A
+ * chunk that is larger than the byte capacity is accepted if the queue is empty.
+ */
+class ReceiveQueue {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+
+    private final int maxChunks;
+
+    private final long maxBytes;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private long queuedBytes;
+
+    private long highWaterBytes;
+
+    private int highWaterChunks;
+
+    private long droppedBytes;
+
+    private long droppedChunks;
+
+    ReceiveQueue() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE, OverflowPolicy.BLOCK);
+    }
+
+    ReceiveQueue(int maxChunks, long maxBytes, OverflowPolicy overflowPolicy) {
+        if (maxChunks <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive!");
+        }
+        this.maxChunks = maxChunks;
+        this.maxBytes = maxBytes;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Add a chunk according to the overflow policy.
+     *
+     * @param chunk
+     *            the chunk
+     * @param maxWaitNanos
+     *            the maximum time to wait for space with {@link OverflowPolicy#BLOCK}
+     * @return {@code true} if the chunk was added, {@code false} if the chunk was dropped or the wait timed out
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    boolean offer(byte[] chunk, long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!fits(chunk.length)) {
+                switch (overflowPolicy) {
+                    case BLOCK:
+                        long nanos = maxWaitNanos;
+                        while (!fits(chunk.length)) {
+                            if (nanos <= 0) {
+                                return false;
+                            }
+                            nanos = notFull.awaitNanos(nanos);
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        while (!fits(chunk.length)) {
+                            byte[] oldest = chunks.poll();
+                            queuedBytes -= oldest.length;
+                            dropped(oldest.length);
+                        }
+                        break;
+                    default:
+                        dropped(chunk.length);
+                        return false;
+                }
+            }
+
+            chunks.add(chunk);
+            queuedBytes += chunk.length;
+            highWaterBytes = Math.max(highWaterBytes, queuedBytes);
+            highWaterChunks = Math.max(highWaterChunks, chunks.size());
+            notEmpty.signal();
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the oldest chunk and wait if the queue is empty.
+     *
+     * @return the chunk
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    byte[] take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (chunks.isEmpty()) {
+                notEmpty.await();
+            }
+            return removeFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the oldest chunk and wait up to the given time if the queue is empty.
+     *
+     * @return the chunk or {@code null} if the timeout has elapsed
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    byte[] poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (chunks.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return removeFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the queued chunks to the collection without waiting.
+     *
+     * @param target
+     *            the target collection
+     * @param maxChunks
+     *            the maximum number of chunks to move
+     * @return the number of chunks moved
+     */
+    int drainTo(Collection<? super byte[]> target, int maxChunks) {
+        lock.lock();
+        try {
+            int count = 0;
+            while (count < maxChunks && !chunks.isEmpty()) {
+                target.add(removeFirst());
+                count++;
+            }
+            return count;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a chunk that was dropped outside of the queue.
+     *
+     * @param length
+     *            the length of the chunk
+     */
+    void dropped(int length) {
+        lock.lock();
+        try {
+            droppedBytes += length;
+            droppedChunks++;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            chunks.clear();
+            queuedBytes = 0;
+            notFull.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    long getHighWaterBytes() {
+        lock.lock();
+        try {
+            return highWaterBytes;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    int getHighWaterChunks() {
+        lock.lock();
+        try {
+            return highWaterChunks;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    long getDroppedBytes() {
+        lock.lock();
+        try {
+            return droppedBytes;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    long getDroppedChunks() {
+        lock.lock();
+        try {
+            return droppedChunks;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(int length) {
+        if (chunks.isEmpty()) {
+            return true;
+        }
+        return chunks.size() < maxChunks && queuedBytes + length <= maxBytes;
+    }
+
+    private byte[] removeFirst() {
+        byte[] chunk = chunks.poll();
+        queuedBytes -= chunk.length;
+        notFull.signal();
+        return chunk;
+    }
+}
@@ -0,0 +1,306 @@
+package com.ftdi;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ftdi.utils.ThreadFactories;
+import com.ftdi.utils.TimingWheel;
+
+/**
+ * Correlates pipelined requests with their responses. Several requests may be outstanding at the same time and the
+ * responses may arrive in any order. Every request is tagged with a correlation key, e.g. a sequence number, and the
+ * response with the same key completes the future returned by {@link #send(Object)}.
+ * <p>
+ * The received frames are passed to {@link #onResponse(ByteBuffer)}, usually from
+ * {@link AbstractDataHandler#processMessages(ByteBuffer)} together with a {@link com.ftdi.codec.FrameDecoder}. The
+ * number of outstanding requests is bounded by the in-flight window, and every request fails with a
+ * {@link TimeoutException} if no response arrives in time. The timeouts are kept in a {@link TimingWheel}.
+ * <p>
+ * The futures are completed on the thread that delivers the response or on the timer thread, so dependent actions
+ * should not block or should use the async variants of {@link CompletableFuture}.
+ *
+ * @param <Q>
+ *            the type of the requests
+ * @param <R>
+ *            the type of the responses
+ * @param <K>
+ *            the type of the correlation key
+ */
+public class RequestCorrelator<Q, R, K> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestCorrelator.class);
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * Writes a request to the device.
+     *
+     * @param <Q>
+     *            the type of the requests
+     */
+    @FunctionalInterface
+    public interface RequestWriter<Q> {
+
+        /**
+         * @param request
+         *            the request to write
+         * @throws FTD2XXException
+         *             if writing the request failed
+         */
+        void write(Q request) throws FTD2XXException;
+    }
+
+    /**
+     * Decodes a received frame into a response.
+     *
+     * @param <R>
+     *            the type of the responses
+     */
+    @FunctionalInterface
+    public interface ResponseDecoder<R> {
+
+        /**
+         * @param frame
+         *            the frame between position and limit, only valid during the call
+         * @return the response or {@code null} if the frame is not a response
+         */
+        R decode(ByteBuffer frame);
+    }
+
+    private final class PendingRequest {
+
+        private final K key;
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private volatile TimingWheel.Timeout timeout;
+
+        private PendingRequest(K key) {
+            this.key = key;
+        }
+    }
+
+    private final RequestWriter<Q> requestWriter;
+
+    private final ResponseDecoder<R> responseDecoder;
+
+    private final Function<? super Q, ? extends K> requestKey;
+
+    private final Function<? super R, ? extends K> responseKey;
+
+    private final long timeoutNanos;
+
+    private final Semaphore window;
+
+    private final int maxInFlight;
+
+    private final TimingWheel timingWheel;
+
+    private final Map<K, PendingRequest> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong unmatchedResponses = new AtomicLong();
+
+    private final AtomicLong timedOutRequests = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Create a new correlator.
+     *
+     * @param requestWriter
+     *            writes the requests to the device
+     * @param responseDecoder
+     *            decodes the received frames into responses
+     * @param requestKey
+     *            extracts the correlation key from a request
+     * @param responseKey
+     *            extracts the correlation key from a response
+     * @param maxInFlight
+     *            the maximum number of outstanding requests
+     * @param timeout
+     *            the time to wait for the response of a request
+     * @param unit
+     *            the unit of the timeout
+     */
+    public RequestCorrelator(RequestWriter<Q> requestWriter, ResponseDecoder<R> responseDecoder,
+        Function<? super Q, ? extends K> requestKey, Function<? super R, ? extends K> responseKey, int maxInFlight,
+        long timeout, TimeUnit unit) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests in flight must be positive!");
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("The timeout must be positive!");
+        }
+        this.requestWriter = requestWriter;
+        this.responseDecoder = responseDecoder;
+        this.requestKey = requestKey;
+        this.responseKey = responseKey;
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.timingWheel =
+            new TimingWheel(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL,
+                ThreadFactories.platformThreadFactory("FTDI-RequestTimeout", true));
+    }
+
+    /**
+     * Send a request. If the in-flight window is full, the calling thread waits until a response arrives or a request
+     * times out; if no slot becomes free within the timeout, the returned future fails with a
+     * {@link TimeoutException}.
+     *
+     * @param request
+     *            the request
+     * @return the future that is completed with the response
+     */
+    public CompletableFuture<R> send(Q request) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The correlator is closed."));
+        }
+
+        try {
+            if (!window.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return CompletableFuture
+                    .failedFuture(new TimeoutException("No slot in the in-flight window became free."));
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        final K key = requestKey.apply(request);
+        final PendingRequest pendingRequest = new PendingRequest(key);
+        if (pending.putIfAbsent(key, pendingRequest) != null) {
+            window.release();
+            return CompletableFuture
+                .failedFuture(new IllegalStateException("A request with the same key is in flight: " + key));
+        }
+        if (closed) {
+            // close() may have failed the outstanding requests before this one was added
+            if (pending.remove(key, pendingRequest)) {
+                window.release();
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("The correlator is closed."));
+        }
+
+        // every completion, including a cancel by the caller, frees the slot exactly once
+        pendingRequest.future.whenComplete((response, ex) -> {
+            if (pending.remove(key, pendingRequest)) {
+                TimingWheel.Timeout timeout = pendingRequest.timeout;
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                window.release();
+            }
+        });
+
+        // register before writing, the response may arrive before the write returns
+        try {
+            pendingRequest.timeout = timingWheel.schedule(() -> {
+                // claim the request before completing it, so the statistics are updated when the caller sees the
+                // failure
+                if (pending.remove(key, pendingRequest)) {
+                    timedOutRequests.incrementAndGet();
+                    window.release();
+                    pendingRequest.future
+                        .completeExceptionally(new TimeoutException("No response received for request: " + key));
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (IllegalStateException ex) {
+            // the correlator was closed concurrently, the completion frees the slot
+            pendingRequest.future.completeExceptionally(new IllegalStateException("The correlator is closed.", ex));
+            return pendingRequest.future;
+        }
+        if (pendingRequest.future.isDone()) {
+            pendingRequest.timeout.cancel();
+        }
+
+        try {
+            requestWriter.write(request);
+        }
+        catch (FTD2XXException | RuntimeException ex) {
+            pendingRequest.future.completeExceptionally(ex);
+        }
+        return pendingRequest.future;
+    }
+
+    /**
+     * Pass a received frame to the correlator.
+     *
+     * @param frame
+     *            the frame between position and limit, only valid during the call
+     * @return {@code true} if the frame completed an outstanding request
+     */
+    public boolean onResponse(ByteBuffer frame) {
+        final R response = responseDecoder.decode(frame);
+        if (response == null) {
+            return false;
+        }
+        return complete(response);
+    }
+
+    /**
+     * Complete the outstanding request that matches the decoded response.
+     *
+     * @param response
+     *            the response
+     * @return {@code true} if the response completed an outstanding request
+     */
+    public boolean complete(R response) {
+        final K key = responseKey.apply(response);
+        final PendingRequest pendingRequest = pending.get(key);
+        if (pendingRequest == null || !pendingRequest.future.complete(response)) {
+            LOGGER.debug("Received response without outstanding request: {}", key);
+            unmatchedResponses.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of outstanding requests
+     */
+    public int getInFlight() {
+        return maxInFlight - window.availablePermits();
+    }
+
+    /**
+     * @return the number of responses that did not match an outstanding request
+     */
+    public long getUnmatchedResponses() {
+        return unmatchedResponses.get();
+    }
+
+    /**
+     * @return the number of requests that timed out
+     */
+    public long getTimedOutRequests() {
+        return timedOutRequests.get();
+    }
+
+    /**
+     * Fail all outstanding requests with a {@link CancellationException} and stop the timer thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (PendingRequest pendingRequest : pending.values()) {
+            pendingRequest.future.completeExceptionally(new CancellationException("The correlator was closed."));
+        }
+        timingWheel.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ftdi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The wait strategies for the receiver thread of a {@link AbstractDataHandler}. The spinning strategies trade a CPU
+ * core for a lower latency and are intended for dedicated machines.
+ */
+public final class WaitStrategies {
+
+    private static final WaitStrategy EVENT = (ftDevice, eventWaiter) -> eventWaiter.await(ftDevice);
+
+    private WaitStrategies() {
+    }
+
+    /**
+     * @return the strategy that blocks on the event of the handler, this is the default
+     */
+    public static WaitStrategy event() {
+        return EVENT;
+    }
+
+    /**
+     * Create a strategy that polls the receive queue of the device in a busy loop and falls back to the event if no
+     * data arrived within the given time.
+     *
+     * @param maxSpin
+     *            the maximum time to spin
+     * @param unit
+     *            the unit of the time
+     * @return the strategy
+     */
+    public static WaitStrategy busySpin(long maxSpin, TimeUnit unit) {
+        return new BackoffWaitStrategy(unit.toNanos(maxSpin), 0, 0);
+    }
+
+    /**
+     * Create a strategy that polls the receive queue of the device in a busy loop first, then polls and parks between
+     * the polls and falls back to the event if no data arrived within the given times.
+     *
+     * @param maxSpin
+     *            the maximum time to spin
+     * @param maxPark
+     *            the maximum time to poll with parking after the spinning
+     * @param parkInterval
+     *            the time to park between the polls
+     * @param unit
+     *            the unit of the times
+     * @return the strategy
+     */
+    public static WaitStrategy backoff(long maxSpin, long maxPark, long parkInterval, TimeUnit unit) {
+        return new BackoffWaitStrategy(unit.toNanos(maxSpin), unit.toNanos(maxPark), unit.toNanos(parkInterval));
+    }
+
+    private static final class BackoffWaitStrategy implements WaitStrategy {
+
+        private final long maxSpinNanos;
+
+        private final long maxParkNanos;
+
+        private final long parkIntervalNanos;
+
+        BackoffWaitStrategy(long maxSpinNanos, long maxParkNanos, long parkIntervalNanos) {
+            this.maxSpinNanos = maxSpinNanos;
+            this.maxParkNanos = maxParkNanos;
+            this.parkIntervalNanos = parkIntervalNanos;
+        }
+
+        @Override
+        public void await(FTDevice ftDevice, WaitStrategy.EventWaiter eventWaiter) throws FTD2XXException {
+            final long start = System.nanoTime();
+
+            while (System.nanoTime() - start < maxSpinNanos) {
+                if (ftDevice.getQueueStatus() > 0) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+
+            if (maxParkNanos > 0) {
+                final long parkStart = System.nanoTime();
+                while (System.nanoTime() - parkStart < maxParkNanos) {
+                    if (ftDevice.getQueueStatus() > 0) {
+                        return;
+                    }
+                    LockSupport.parkNanos(parkIntervalNanos);
+                }
+            }
+
+            if (ftDevice.getQueueStatus() > 0) {
+                return;
+            }
+            eventWaiter.await(ftDevice);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ftdi;
+
+/**
+ * Strategy of the receiver thread of a {@link AbstractDataHandler} to wait for received data. See
+ * {@link WaitStrategies} for the provided strategies.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Wait for the OS event that is signaled by the driver.
+     */
+    interface EventWaiter {
+
+        void await(FTDevice ftDevice) throws FTD2XXException;
+    }
+
+    /**
+     * Wait until data is available or the strategy gives up. The receiver reads the data after this method returned.
+     *
+     * @param ftDevice
+     *            the device
+     * @param eventWaiter
+     *            waits for the event of the handler
+     * @throws FTD2XXException
+     *             If something goes wrong.
+     */
+    void await(FTDevice ftDevice, EventWaiter eventWaiter) throws FTD2XXException;
+}
@@ -0,0 +1,277 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base class for frame decoders. Complete frames inside a received chunk are passed to the handler as a view of the
+ * chunk without copying. Only the bytes of a frame that is split across chunks are copied into an internal buffer
+ * until the frame is complete.
+ * <p>
+ * A frame that exceeds the maximum frame length is discarded and counted, see {@link #getDiscardedFrames()}.
+ */
+public abstract class AbstractFrameDecoder implements FrameDecoder {
+
+    private static final int MIN_APPEND = 64;
+
+    private final int maxFrameLength;
+
+    private ByteBuffer pending;
+
+    private int scanned;
+
+    private long skipRemaining;
+
+    private long discardedFrames;
+
+    /**
+     * @param maxFrameLength
+     *            the maximum length of a frame in bytes
+     */
+    protected AbstractFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("The maximum frame length must be positive!");
+        }
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Find the end of the frame that starts at {@code start}.
+     *
+     * @param buffer
+     *            the buffer, must only be accessed with absolute methods
+     * @param start
+     *            the index of the first byte of the frame
+     * @param scanFrom
+     *            the index of the first byte that was not inspected by a previous call for the same frame
+     * @param limit
+     *            the index behind the last available byte
+     * @return the index behind the last byte of the frame, or {@code -1} if the frame is not complete
+     */
+    protected abstract int findFrameEnd(ByteBuffer buffer, int start, int scanFrom, int limit);
+
+    /**
+     * Get the total length of the frame that starts at {@code start} if it can be determined from the available bytes,
+     * e.g. from a header. The default implementation returns {@code -1}.
+     *
+     * @param buffer
+     *            the buffer, must only be accessed with absolute methods
+     * @param start
+     *            the index of the first byte of the frame
+     * @param limit
+     *            the index behind the last available byte
+     * @return the length of the frame in bytes, or {@code -1} if the length is not known yet
+     */
+    protected int frameLength(ByteBuffer buffer, int start, int limit) {
+        return -1;
+    }
+
+    /**
+     * @param buffer
+     *            the buffer
+     * @param start
+     *            the index of the first byte of the frame
+     * @param end
+     *            the index behind the last byte of the frame
+     * @return the index of the first byte passed to the handler, the default implementation returns {@code start}
+     */
+    protected int contentStart(ByteBuffer buffer, int start, int end) {
+        return start;
+    }
+
+    /**
+     * @param buffer
+     *            the buffer
+     * @param start
+     *            the index of the first byte of the frame
+     * @param end
+     *            the index behind the last byte of the frame
+     * @return the index behind the last byte passed to the handler, the default implementation returns {@code end}
+     */
+    protected int contentEnd(ByteBuffer buffer, int start, int end) {
+        return end;
+    }
+
+    /**
+     * @return the maximum length of a frame in bytes
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    /**
+     * @return the number of frames that were discarded because they exceeded the maximum frame length
+     */
+    public long getDiscardedFrames() {
+        return discardedFrames;
+    }
+
+    /**
+     * @return the number of bytes of an incomplete frame kept for the next call
+     */
+    public int getPendingBytes() {
+        return pending != null ? pending.position() : 0;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, FrameHandler handler) {
+        if (skipRemaining != 0 && !skip(in)) {
+            return;
+        }
+        if (getPendingBytes() > 0 && !completePending(in, handler)) {
+            return;
+        }
+        decodeInPlace(in, handler);
+    }
+
+    @Override
+    public void reset() {
+        if (pending != null) {
+            pending.clear();
+        }
+        scanned = 0;
+        skipRemaining = 0;
+    }
+
+    private void decodeInPlace(ByteBuffer in, FrameHandler handler) {
+        final int limit = in.limit();
+        int start = in.position();
+
+        while (start < limit) {
+            int length = frameLength(in, start, limit);
+            if (length > maxFrameLength) {
+                discardedFrames++;
+                skipRemaining = length;
+                in.position(start);
+                if (!skip(in)) {
+                    return;
+                }
+                start = in.position();
+                continue;
+            }
+
+            int end = findFrameEnd(in, start, start, limit);
+            if (end < 0) {
+                break;
+            }
+            if (end - start > maxFrameLength) {
+                discardedFrames++;
+            }
+            else {
+                emit(in, start, end, handler);
+            }
+            start = end;
+        }
+
+        int tail = limit - start;
+        if (tail > maxFrameLength) {
+            discardedFrames++;
+            int length = frameLength(in, start, limit);
+            skipRemaining = length > 0 ? length - tail : -1;
+        }
+        else if (tail > 0) {
+            ensurePending(tail);
+            pending.put(0, in, start, tail);
+            pending.position(tail);
+            scanned = tail;
+        }
+        in.position(limit);
+    }
+
+    private boolean completePending(ByteBuffer in, FrameHandler handler) {
+        while (in.hasRemaining()) {
+            final int stored = pending.position();
+            final int length = frameLength(pending, 0, stored);
+
+            if (length > maxFrameLength) {
+                discardPending(length - stored);
+                return skip(in);
+            }
+
+            // copy only the bytes that are known to belong to the frame, or grow the copied range exponentially
+            int count = length > 0 ? length - stored : Math.max(MIN_APPEND, stored);
+            count = Math.min(Math.min(count, in.remaining()), maxFrameLength - stored);
+            if (count == 0) {
+                discardPending(-1);
+                return skip(in);
+            }
+
+            ensurePending(stored + count);
+            pending.put(stored, in, in.position(), count);
+            pending.position(stored + count);
+            in.position(in.position() + count);
+
+            int end = findFrameEnd(pending, 0, scanned, stored + count);
+            if (end < 0) {
+                scanned = stored + count;
+                continue;
+            }
+
+            // give back the bytes behind the end of the frame
+            in.position(in.position() - (stored + count - end));
+
+            try {
+                emit(pending, 0, end, handler);
+            }
+            finally {
+                pending.clear();
+                scanned = 0;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void discardPending(long remaining) {
+        discardedFrames++;
+        pending.clear();
+        scanned = 0;
+        skipRemaining = remaining;
+    }
+
+    private boolean skip(ByteBuffer in) {
+        if (skipRemaining > 0) {
+            int count = (int) Math.min(skipRemaining, in.remaining());
+            in.position(in.position() + count);
+            skipRemaining -= count;
+            return skipRemaining == 0;
+        }
+
+        // the length of the frame is unknown, skip until its end
+        int end = findFrameEnd(in, in.position(), in.position(), in.limit());
+        if (end < 0) {
+            in.position(in.limit());
+            return false;
+        }
+        in.position(end);
+        skipRemaining = 0;
+        return true;
+    }
+
+    private void emit(ByteBuffer buffer, int start, int end, FrameHandler handler) {
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+
+        buffer.limit(contentEnd(buffer, start, end));
+        buffer.position(contentStart(buffer, start, end));
+        try {
+            handler.frameDecoded(buffer);
+        }
+        finally {
+            buffer.limit(limit);
+            buffer.position(position);
+        }
+    }
+
+    private void ensurePending(int capacity) {
+        if (pending == null) {
+            pending = ByteBuffer.allocate(Math.min(maxFrameLength, Math.max(capacity, 256)));
+        }
+        else if (pending.capacity() < capacity) {
+            ByteBuffer grown =
+                ByteBuffer.allocate(Math.min(maxFrameLength, Math.max(capacity, pending.capacity() * 2)));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Table driven CRC8 of the BiDiB serial protocol (Dallas/Maxim, polynomial x^8 + x^5 + x^4 + 1, reflected, initial
+ * value 0). The CRC over a message followed by its CRC is 0.
+ */
+public final class BidibCrc8 {
+
+    private static final byte[] TABLE = new byte[256];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            int crc = value;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x01) != 0 ? (crc >>> 1) ^ 0x8C : crc >>> 1;
+            }
+            TABLE[value] = (byte) crc;
+        }
+    }
+
+    private BidibCrc8() {
+    }
+
+    /**
+     * Update the CRC with one byte.
+     *
+     * @param crc
+     *            the current CRC
+     * @param value
+     *            the byte
+     * @return the new CRC
+     */
+    public static int update(int crc, byte value) {
+        return TABLE[(crc ^ value) & 0xFF] & 0xFF;
+    }
+
+    /**
+     * Calculate the CRC of the bytes between position and limit of the buffer. The position is not changed.
+     *
+     * @param buffer
+     *            the buffer
+     * @return the CRC
+     */
+    public static int calculate(ByteBuffer buffer) {
+        int crc = 0;
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            for (int index = buffer.arrayOffset() + buffer.position(), end = buffer.arrayOffset() + buffer.limit();
+                index < end; index++) {
+                crc = TABLE[(crc ^ array[index]) & 0xFF] & 0xFF;
+            }
+        }
+        else {
+            for (int index = buffer.position(), end = buffer.limit(); index < end; index++) {
+                crc = TABLE[(crc ^ buffer.get(index)) & 0xFF] & 0xFF;
+            }
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for the serial framing of BiDiB. A packet is terminated by {@link #MAGIC}, the bytes {@link #MAGIC} and
+ * {@link #ESCAPE} inside the packet are sent as {@link #ESCAPE} followed by the byte XOR {@code 0x20}, and the last
+ * byte of the packet is the {@link BidibCrc8 CRC8} of the preceding bytes.
+ * <p>
+ * The decoder unescapes the bytes and updates the CRC in a single pass. Every packet with a valid CRC is passed to the
+ * handler without the CRC byte. Packets with an invalid CRC and packets that exceed the maximum length are discarded
+ * and counted. The state of an incomplete packet, including a pending escape, is kept across chunks.
+ */
+public class BidibFrameDecoder implements FrameDecoder {
+
+    public static final byte MAGIC = (byte) 0xFE;
+
+    public static final byte ESCAPE = (byte) 0xFD;
+
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024;
+
+    private final byte[] frame;
+
+    private final ByteBuffer frameView;
+
+    private int length;
+
+    private int crc;
+
+    private boolean escaped;
+
+    private boolean discarding;
+
+    private long crcErrors;
+
+    private long discardedFrames;
+
+    /**
+     * Create a new decoder with the default maximum packet length.
+     */
+    public BidibFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param maxFrameLength
+     *            the maximum length of an unescaped packet including the CRC
+     */
+    public BidibFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 1) {
+            throw new IllegalArgumentException("The maximum frame length must be greater than 1!");
+        }
+        this.frame = new byte[maxFrameLength];
+        this.frameView = ByteBuffer.wrap(frame);
+    }
+
+    /**
+     * @return the number of packets that were discarded because of an invalid CRC
+     */
+    public long getCrcErrors() {
+        return crcErrors;
+    }
+
+    /**
+     * @return the number of packets that were discarded because they exceeded the maximum length
+     */
+    public long getDiscardedFrames() {
+        return discardedFrames;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, FrameHandler handler) {
+        final int limit = in.limit();
+        if (in.hasArray()) {
+            final byte[] array = in.array();
+            final int offset = in.arrayOffset();
+            for (int index = in.position() + offset, end = limit + offset; index < end; index++) {
+                decode(array[index], handler);
+            }
+        }
+        else {
+            for (int index = in.position(); index < limit; index++) {
+                decode(in.get(index), handler);
+            }
+        }
+        in.position(limit);
+    }
+
+    private void decode(byte value, FrameHandler handler) {
+        if (value == MAGIC) {
+            endOfFrame(handler);
+            return;
+        }
+        if (discarding) {
+            return;
+        }
+        if (value == ESCAPE) {
+            escaped = true;
+            return;
+        }
+        if (escaped) {
+            value ^= 0x20;
+            escaped = false;
+        }
+        if (length == frame.length) {
+            discarding = true;
+            discardedFrames++;
+            return;
+        }
+        frame[length++] = value;
+        crc = BidibCrc8.update(crc, value);
+    }
+
+    private void endOfFrame(FrameHandler handler) {
+        try {
+            // consecutive magic bytes are allowed and delimit empty packets
+            if (!discarding && length > 0) {
+                if (length > 1 && crc == 0) {
+                    frameView.clear();
+                    frameView.limit(length - 1);
+                    handler.frameDecoded(frameView);
+                }
+                else {
+                    crcErrors++;
+                }
+            }
+        }
+        finally {
+            reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        length = 0;
+        crc = 0;
+        escaped = false;
+        discarding = false;
+    }
+}
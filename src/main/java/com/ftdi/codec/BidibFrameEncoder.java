@@ -0,0 +1,126 @@
+package com.ftdi.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.ftdi.utils.BufferPool;
+import com.ftdi.utils.BufferPool.PooledBuffer;
+
+/**
+ * Encoder for the serial framing of BiDiB, the counterpart of {@link BidibFrameDecoder}. The encoder escapes the
+ * message, appends the escaped {@link BidibCrc8 CRC8} and terminates the packet with
+ * {@link BidibFrameDecoder#MAGIC}. The packet is written directly into the output buffer without intermediate copies.
+ */
+public class BidibFrameEncoder {
+
+    private final boolean leadingMagic;
+
+    /**
+     * Create a new encoder that also starts every packet with {@link BidibFrameDecoder#MAGIC}.
+     */
+    public BidibFrameEncoder() {
+        this(true);
+    }
+
+    /**
+     * Create a new encoder.
+     *
+     * @param leadingMagic
+     *            if {@code true} every packet also starts with {@link BidibFrameDecoder#MAGIC}
+     */
+    public BidibFrameEncoder(boolean leadingMagic) {
+        this.leadingMagic = leadingMagic;
+    }
+
+    /**
+     * Get the maximum length of an encoded packet, i.e. if every byte must be escaped.
+     *
+     * @param messageLength
+     *            the length of the message
+     * @return the maximum length of the packet
+     */
+    public static int maxEncodedLength(int messageLength) {
+        return 2 * (messageLength + 1) + 2;
+    }
+
+    /**
+     * Encode the bytes between position and limit of the message into the output buffer. The message is consumed.
+     *
+     * @param message
+     *            the message
+     * @param out
+     *            the output buffer, must have at least {@link #maxEncodedLength(int)} bytes remaining
+     * @return the number of bytes written
+     * @throws BufferOverflowException
+     *             if the output buffer has too few bytes remaining, nothing is written in this case
+     */
+    public int encode(ByteBuffer message, ByteBuffer out) {
+        if (out.remaining() < maxEncodedLength(message.remaining())) {
+            throw new BufferOverflowException();
+        }
+
+        final int start = out.position();
+        if (leadingMagic) {
+            out.put(BidibFrameDecoder.MAGIC);
+        }
+
+        int crc = 0;
+        final int limit = message.limit();
+        for (int index = message.position(); index < limit; index++) {
+            byte value = message.get(index);
+            crc = BidibCrc8.update(crc, value);
+            put(out, value);
+        }
+        message.position(limit);
+
+        put(out, (byte) crc);
+        out.put(BidibFrameDecoder.MAGIC);
+
+        return out.position() - start;
+    }
+
+    /**
+     * Encode the bytes between position and limit of the message into a buffer of the pool. The message is consumed.
+     *
+     * @param message
+     *            the message
+     * @param pool
+     *            the pool, the buffers must have at least {@link #maxEncodedLength(int)} bytes
+     * @param timeout
+     *            the maximum time to wait for a buffer
+     * @param unit
+     *            the unit of the timeout
+     * @return the pooled buffer with the packet between position and limit, or {@code null} if no buffer became
+     *         available. The caller must release the buffer with its {@link PooledBuffer#stamp() stamp}.
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting for a buffer
+     */
+    public PooledBuffer encode(ByteBuffer message, BufferPool pool, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        PooledBuffer pooledBuffer = pool.acquire(timeout, unit);
+        if (pooledBuffer == null) {
+            return null;
+        }
+        try {
+            ByteBuffer out = pooledBuffer.buffer();
+            encode(message, out);
+            out.flip();
+            return pooledBuffer;
+        }
+        catch (RuntimeException ex) {
+            pooledBuffer.release(pooledBuffer.stamp());
+            throw ex;
+        }
+    }
+
+    private static void put(ByteBuffer out, byte value) {
+        if (value == BidibFrameDecoder.MAGIC || value == BidibFrameDecoder.ESCAPE) {
+            out.put(BidibFrameDecoder.ESCAPE);
+            out.put((byte) (value ^ 0x20));
+        }
+        else {
+            out.put(value);
+        }
+    }
+}
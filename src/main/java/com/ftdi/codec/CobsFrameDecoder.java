@@ -0,0 +1,143 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for frames encoded with Consistent Overhead Byte Stuffing (COBS) and terminated by a zero byte. Every
+ * decoded frame is passed to the handler. Frames with an invalid encoding and frames that exceed the maximum length
+ * are discarded and counted. The decoder keeps its state across chunks, so a frame may be split at any byte.
+ */
+public class CobsFrameDecoder implements FrameDecoder {
+
+    public static final byte DELIMITER = 0;
+
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024;
+
+    private final byte[] frame;
+
+    private final ByteBuffer frameView;
+
+    private int length;
+
+    /**
+     * The number of data bytes remaining in the current block, {@code 0} if the next byte is a code byte.
+     */
+    private int remaining;
+
+    private int lastCode;
+
+    private boolean discarding;
+
+    private long invalidFrames;
+
+    private long discardedFrames;
+
+    /**
+     * Create a new decoder with the default maximum frame length.
+     */
+    public CobsFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param maxFrameLength
+     *            the maximum length of a decoded frame
+     */
+    public CobsFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("The maximum frame length must be positive!");
+        }
+        this.frame = new byte[maxFrameLength];
+        this.frameView = ByteBuffer.wrap(frame);
+    }
+
+    /**
+     * @return the number of frames that were discarded because the encoding was invalid
+     */
+    public long getInvalidFrames() {
+        return invalidFrames;
+    }
+
+    /**
+     * @return the number of frames that were discarded because they exceeded the maximum length
+     */
+    public long getDiscardedFrames() {
+        return discardedFrames;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, FrameHandler handler) {
+        final int limit = in.limit();
+        if (in.hasArray()) {
+            final byte[] array = in.array();
+            final int offset = in.arrayOffset();
+            for (int index = in.position() + offset, end = limit + offset; index < end; index++) {
+                decode(array[index], handler);
+            }
+        }
+        else {
+            for (int index = in.position(); index < limit; index++) {
+                decode(in.get(index), handler);
+            }
+        }
+        in.position(limit);
+    }
+
+    private void decode(byte value, FrameHandler handler) {
+        if (value == DELIMITER) {
+            endOfFrame(handler);
+            return;
+        }
+        if (discarding) {
+            return;
+        }
+        if (remaining == 0) {
+            // a block that is shorter than 254 data bytes stands for a zero byte, except the last block
+            if (lastCode != 0 && lastCode != 0xFF) {
+                append(DELIMITER);
+            }
+            lastCode = value & 0xFF;
+            remaining = lastCode - 1;
+            return;
+        }
+        append(value);
+        remaining--;
+    }
+
+    private void append(byte value) {
+        if (length == frame.length) {
+            discarding = true;
+            discardedFrames++;
+            return;
+        }
+        frame[length++] = value;
+    }
+
+    private void endOfFrame(FrameHandler handler) {
+        try {
+            if (!discarding && lastCode != 0) {
+                if (remaining == 0) {
+                    frameView.clear();
+                    frameView.limit(length);
+                    handler.frameDecoded(frameView);
+                }
+                else {
+                    invalidFrames++;
+                }
+            }
+        }
+        finally {
+            reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        length = 0;
+        remaining = 0;
+        lastCode = 0;
+        discarding = false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ftdi.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoder for Consistent Overhead Byte Stuffing (COBS), the counterpart of {@link CobsFrameDecoder}. The frame is
+ * written directly into the output buffer and terminated by a zero byte, so the buffer can be passed to
+ * {@link com.ftdi.FTDevice#write(ByteBuffer)} without further copies.
+ */
+public class CobsFrameEncoder {
+
+    /**
+     * Get the maximum length of an encoded frame including the delimiter.
+     *
+     * @param messageLength
+     *            the length of the message
+     * @return the maximum length of the frame
+     */
+    public static int maxEncodedLength(int messageLength) {
+        return messageLength + messageLength / 254 + 2;
+    }
+
+    /**
+     * Encode the bytes between position and limit of the message into the output buffer. The message is consumed.
+     *
+     * @param message
+     *            the message
+     * @param out
+     *            the output buffer, must have at least {@link #maxEncodedLength(int)} bytes remaining
+     * @return the number of bytes written
+     * @throws BufferOverflowException
+     *             if the output buffer has too few bytes remaining, nothing is written in this case
+     */
+    public int encode(ByteBuffer message, ByteBuffer out) {
+        if (out.remaining() < maxEncodedLength(message.remaining())) {
+            throw new BufferOverflowException();
+        }
+
+        final int start = out.position();
+        int codeIndex = out.position();
+        out.put((byte) 0);
+        int code = 1;
+
+        final int limit = message.limit();
+        for (int index = message.position(); index < limit; index++) {
+            byte value = message.get(index);
+            if (value != CobsFrameDecoder.DELIMITER) {
+                out.put(value);
+                code++;
+                if (code < 0xFF) {
+                    continue;
+                }
+            }
+            // close the block and reserve the code byte of the next block
+            out.put(codeIndex, (byte) code);
+            codeIndex = out.position();
+            out.put((byte) 0);
+            code = 1;
+        }
+        message.position(limit);
+
+        out.put(codeIndex, (byte) code);
+        out.put(CobsFrameDecoder.DELIMITER);
+
+        return out.position() - start;
+    }
+}
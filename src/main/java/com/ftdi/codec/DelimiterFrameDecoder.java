@@ -0,0 +1,74 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for frames that are terminated by a delimiter byte, e.g. a line feed or the event character of the device.
+ */
+public class DelimiterFrameDecoder extends AbstractFrameDecoder {
+
+    private final byte delimiter;
+
+    private final boolean stripDelimiter;
+
+    /**
+     * Create a new decoder that passes the delimiter with the frame.
+     *
+     * @param delimiter
+     *            the byte that terminates a frame
+     * @param maxFrameLength
+     *            the maximum length of a frame including the delimiter
+     */
+    public DelimiterFrameDecoder(byte delimiter, int maxFrameLength) {
+        this(delimiter, maxFrameLength, false);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param delimiter
+     *            the byte that terminates a frame
+     * @param maxFrameLength
+     *            the maximum length of a frame including the delimiter
+     * @param stripDelimiter
+     *            if {@code true} the delimiter is not passed with the frame
+     */
+    public DelimiterFrameDecoder(byte delimiter, int maxFrameLength, boolean stripDelimiter) {
+        super(maxFrameLength);
+        this.delimiter = delimiter;
+        this.stripDelimiter = stripDelimiter;
+    }
+
+    /**
+     * @return the byte that terminates a frame
+     */
+    public byte getDelimiter() {
+        return delimiter;
+    }
+
+    @Override
+    protected int findFrameEnd(ByteBuffer buffer, int start, int scanFrom, int limit) {
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset();
+            for (int index = scanFrom + offset, end = limit + offset; index < end; index++) {
+                if (array[index] == delimiter) {
+                    return index - offset + 1;
+                }
+            }
+            return -1;
+        }
+
+        for (int index = scanFrom; index < limit; index++) {
+            if (buffer.get(index) == delimiter) {
+                return index + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected int contentEnd(ByteBuffer buffer, int start, int end) {
+        return stripDelimiter ? end - 1 : end;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for frames that all have the same length.
+ */
+public class FixedLengthFrameDecoder extends AbstractFrameDecoder {
+
+    private final int frameLength;
+
+    /**
+     * @param frameLength
+     *            the length of a frame in bytes
+     */
+    public FixedLengthFrameDecoder(int frameLength) {
+        super(frameLength);
+        this.frameLength = frameLength;
+    }
+
+    @Override
+    protected int findFrameEnd(ByteBuffer buffer, int start, int scanFrom, int limit) {
+        return limit - start >= frameLength ? start + frameLength : -1;
+    }
+
+    @Override
+    protected int frameLength(ByteBuffer buffer, int start, int limit) {
+        return frameLength;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental decoder that splits a stream of received chunks into frames. Bytes of an incomplete frame are kept by
+ * the decoder until the rest of the frame arrives with one of the next chunks.
+ */
+public interface FrameDecoder {
+
+    /**
+     * Decode the bytes between position and limit of the buffer. Every complete frame is passed to the handler, the
+     * bytes of an incomplete frame at the end are kept for the next call. The buffer is consumed completely.
+     *
+     * @param in
+     *            the received bytes
+     * @param handler
+     *            the handler that receives the complete frames
+     */
+    void decode(ByteBuffer in, FrameHandler handler);
+
+    /**
+     * Discard the bytes of an incomplete frame.
+     */
+    void reset();
+}
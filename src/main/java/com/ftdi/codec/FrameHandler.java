@@ -0,0 +1,19 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receiver of the frames emitted by a {@link FrameDecoder}.
+ */
+@FunctionalInterface
+public interface FrameHandler {
+
+    /**
+     * Called for every complete frame. The frame is between position and limit of the buffer. The buffer is only valid
+     * during the call and must not be kept.
+     *
+     * @param frame
+     *            the frame
+     */
+    void frameDecoded(ByteBuffer frame);
+}
@@ -0,0 +1,117 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decoder for frames with a header that contains the length of the frame. The length field is an unsigned integer of
+ * 1 to 4 bytes. The total length of a frame is {@code lengthFieldOffset + lengthFieldLength + value + lengthAdjustment},
+ * where {@code lengthAdjustment} compensates for length fields that also count the header or a trailing checksum.
+ * <p>
+ * A length field that results in a frame shorter than the header is treated as a frame that consists of the header
+ * only.
+ */
+public class LengthFieldFrameDecoder extends AbstractFrameDecoder {
+
+    private final int lengthFieldOffset;
+
+    private final int lengthFieldLength;
+
+    private final ByteOrder byteOrder;
+
+    private final int lengthAdjustment;
+
+    private final int initialBytesToStrip;
+
+    private final int headerLength;
+
+    /**
+     * Create a new decoder for a big endian length field that counts the bytes after the length field.
+     *
+     * @param lengthFieldOffset
+     *            the offset of the length field in the frame
+     * @param lengthFieldLength
+     *            the length of the length field, 1 to 4 bytes
+     * @param maxFrameLength
+     *            the maximum length of a frame including the header
+     */
+    public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength, int maxFrameLength) {
+        this(lengthFieldOffset, lengthFieldLength, ByteOrder.BIG_ENDIAN, 0, 0, maxFrameLength);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param lengthFieldOffset
+     *            the offset of the length field in the frame
+     * @param lengthFieldLength
+     *            the length of the length field, 1 to 4 bytes
+     * @param byteOrder
+     *            the byte order of the length field
+     * @param lengthAdjustment
+     *            the value that is added to the length field to get the number of bytes after the length field
+     * @param initialBytesToStrip
+     *            the number of bytes at the start of the frame that are not passed to the handler
+     * @param maxFrameLength
+     *            the maximum length of a frame including the header
+     */
+    public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength, ByteOrder byteOrder,
+        int lengthAdjustment, int initialBytesToStrip, int maxFrameLength) {
+        super(maxFrameLength);
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("The length field offset must not be negative!");
+        }
+        if (lengthFieldLength < 1 || lengthFieldLength > 4) {
+            throw new IllegalArgumentException("The length field length must be between 1 and 4: " + lengthFieldLength);
+        }
+        if (initialBytesToStrip < 0) {
+            throw new IllegalArgumentException("The initial bytes to strip must not be negative!");
+        }
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldLength = lengthFieldLength;
+        this.byteOrder = byteOrder;
+        this.lengthAdjustment = lengthAdjustment;
+        this.initialBytesToStrip = initialBytesToStrip;
+        this.headerLength = lengthFieldOffset + lengthFieldLength;
+    }
+
+    @Override
+    protected int frameLength(ByteBuffer buffer, int start, int limit) {
+        if (limit - start < headerLength) {
+            return -1;
+        }
+
+        final int fieldStart = start + lengthFieldOffset;
+        long value = 0;
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            for (int index = 0; index < lengthFieldLength; index++) {
+                value = (value << 8) | (buffer.get(fieldStart + index) & 0xFF);
+            }
+        }
+        else {
+            for (int index = lengthFieldLength - 1; index >= 0; index--) {
+                value = (value << 8) | (buffer.get(fieldStart + index) & 0xFF);
+            }
+        }
+
+        long length = headerLength + value + lengthAdjustment;
+        if (length < headerLength) {
+            return headerLength;
+        }
+        return (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected int findFrameEnd(ByteBuffer buffer, int start, int scanFrom, int limit) {
+        int length = frameLength(buffer, start, limit);
+        if (length < 0 || limit - start < length) {
+            return -1;
+        }
+        return start + length;
+    }
+
+    @Override
+    protected int contentStart(ByteBuffer buffer, int start, int end) {
+        return Math.min(start + initialBytesToStrip, end);
+    }
+}
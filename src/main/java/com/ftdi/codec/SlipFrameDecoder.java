@@ -0,0 +1,129 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for frames encoded with SLIP (RFC 1055). Every non-empty frame is passed to the handler. Frames that exceed
+ * the maximum length are discarded and counted. An escape followed by an unexpected byte is decoded as that byte, as
+ * recommended by the RFC. The decoder keeps its state across chunks, so a frame may be split at any byte.
+ */
+public class SlipFrameDecoder implements FrameDecoder {
+
+    public static final byte END = (byte) 0xC0;
+
+    public static final byte ESC = (byte) 0xDB;
+
+    public static final byte ESC_END = (byte) 0xDC;
+
+    public static final byte ESC_ESC = (byte) 0xDD;
+
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1006;
+
+    private final byte[] frame;
+
+    private final ByteBuffer frameView;
+
+    private int length;
+
+    private boolean escaped;
+
+    private boolean discarding;
+
+    private long discardedFrames;
+
+    /**
+     * Create a new decoder with the default maximum frame length of RFC 1055.
+     */
+    public SlipFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param maxFrameLength
+     *            the maximum length of a decoded frame
+     */
+    public SlipFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("The maximum frame length must be positive!");
+        }
+        this.frame = new byte[maxFrameLength];
+        this.frameView = ByteBuffer.wrap(frame);
+    }
+
+    /**
+     * @return the number of frames that were discarded because they exceeded the maximum length
+     */
+    public long getDiscardedFrames() {
+        return discardedFrames;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, FrameHandler handler) {
+        final int limit = in.limit();
+        if (in.hasArray()) {
+            final byte[] array = in.array();
+            final int offset = in.arrayOffset();
+            for (int index = in.position() + offset, end = limit + offset; index < end; index++) {
+                decode(array[index], handler);
+            }
+        }
+        else {
+            for (int index = in.position(); index < limit; index++) {
+                decode(in.get(index), handler);
+            }
+        }
+        in.position(limit);
+    }
+
+    private void decode(byte value, FrameHandler handler) {
+        if (value == END) {
+            endOfFrame(handler);
+            return;
+        }
+        if (discarding) {
+            return;
+        }
+        if (value == ESC) {
+            escaped = true;
+            return;
+        }
+        if (escaped) {
+            escaped = false;
+            if (value == ESC_END) {
+                value = END;
+            }
+            else if (value == ESC_ESC) {
+                value = ESC;
+            }
+        }
+        if (length == frame.length) {
+            discarding = true;
+            discardedFrames++;
+            return;
+        }
+        frame[length++] = value;
+    }
+
+    private void endOfFrame(FrameHandler handler) {
+        try {
+            // empty frames are sent to flush line noise and are ignored
+            if (!discarding && length > 0) {
+                frameView.clear();
+                frameView.limit(length);
+                handler.frameDecoded(frameView);
+            }
+        }
+        finally {
+            reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        length = 0;
+        escaped = false;
+        discarding = false;
+    }
+}
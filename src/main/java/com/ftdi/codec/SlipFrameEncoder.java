@@ -0,0 +1,84 @@
+package com.ftdi.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoder for SLIP (RFC 1055), the counterpart of {@link SlipFrameDecoder}. The frame is written directly into the
+ * output buffer, so the buffer can be passed to {@link com.ftdi.FTDevice#write(ByteBuffer)} without further copies.
+ */
+public class SlipFrameEncoder {
+
+    private final boolean leadingEnd;
+
+    /**
+     * Create a new encoder that also starts every frame with {@link SlipFrameDecoder#END} to flush line noise.
+     */
+    public SlipFrameEncoder() {
+        this(true);
+    }
+
+    /**
+     * Create a new encoder.
+     *
+     * @param leadingEnd
+     *            if {@code true} every frame also starts with {@link SlipFrameDecoder#END}
+     */
+    public SlipFrameEncoder(boolean leadingEnd) {
+        this.leadingEnd = leadingEnd;
+    }
+
+    /**
+     * Get the maximum length of an encoded frame, i.e. if every byte must be escaped.
+     *
+     * @param messageLength
+     *            the length of the message
+     * @return the maximum length of the frame
+     */
+    public static int maxEncodedLength(int messageLength) {
+        return 2 * messageLength + 2;
+    }
+
+    /**
+     * Encode the bytes between position and limit of the message into the output buffer. The message is consumed.
+     *
+     * @param message
+     *            the message
+     * @param out
+     *            the output buffer, must have at least {@link #maxEncodedLength(int)} bytes remaining
+     * @return the number of bytes written
+     * @throws BufferOverflowException
+     *             if the output buffer has too few bytes remaining, nothing is written in this case
+     */
+    public int encode(ByteBuffer message, ByteBuffer out) {
+        if (out.remaining() < maxEncodedLength(message.remaining())) {
+            throw new BufferOverflowException();
+        }
+
+        final int start = out.position();
+        if (leadingEnd) {
+            out.put(SlipFrameDecoder.END);
+        }
+
+        final int limit = message.limit();
+        for (int index = message.position(); index < limit; index++) {
+            byte value = message.get(index);
+            if (value == SlipFrameDecoder.END) {
+                out.put(SlipFrameDecoder.ESC);
+                out.put(SlipFrameDecoder.ESC_END);
+            }
+            else if (value == SlipFrameDecoder.ESC) {
+                out.put(SlipFrameDecoder.ESC);
+                out.put(SlipFrameDecoder.ESC_ESC);
+            }
+            else {
+                out.put(value);
+            }
+        }
+        message.position(limit);
+
+        out.put(SlipFrameDecoder.END);
+
+        return out.position() - start;
+    }
+}
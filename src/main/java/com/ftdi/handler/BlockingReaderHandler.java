@@ -38,7 +38,7 @@ public class BlockingReaderHandler extends AbstractDataHandler {
 
     @Override
     protected int readData(FTDevice ftDevice) throws FTD2XXException {
-        int len = ftDevice.read(inputBuffer);
+        int len = receive(ftDevice, inputBuffer.length);
         return len;
     }
 
@@ -6,27 +6,41 @@ import org.slf4j.LoggerFactory;
 import com.ftdi.AbstractEventNotificationHandler;
 import com.ftdi.FTD2XXException;
 import com.ftdi.FTDevice;
-import com.sun.jna.Pointer;
-import com.sun.jna.platform.unix.LibPThread;
 import com.sun.jna.platform.unix.LibPThread.EVENT_HANDLE;
+import com.sun.jna.platform.unix.PThreadEvent;
 
 public class EventNotificationHandlerLinux extends AbstractEventNotificationHandler<EVENT_HANDLE> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventNotificationHandlerLinux.class);
 
-    private static final LibPThread libPThreadExt = LibPThread.INSTANCE;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 100;
+
+    private long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+    private volatile PThreadEvent event;
+
+    /**
+     * Set the upper bound of a single wait for the notification event. If the event is not signaled within this time,
+     * the receiver checks the device again.
+     *
+     * @param maxWaitMillis
+     *            the maximum time to wait in milliseconds
+     */
+    public void setMaxWaitTime(long maxWaitMillis) {
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("The maximum wait time must be positive!");
+        }
+        this.maxWaitMillis = maxWaitMillis;
+    }
 
     @Override
     protected void createEventHandle() {
 
-        EVENT_HANDLE hEvent = new EVENT_HANDLE();
+        PThreadEvent hEvent = new PThreadEvent();
+        LOGGER.info("Initialized the event handle @ {}", hEvent.getPointer());
 
-        int retVal = libPThreadExt.pthread_mutex_init(hEvent.eMutex.getPointer(), Pointer.NULL);
-        LOGGER.info("Initialized the mutex: {} @ {}", retVal, hEvent.eMutex.getPointer());
-        retVal = libPThreadExt.pthread_cond_init(hEvent.eCondVar.getPointer(), Pointer.NULL);
-        LOGGER.info("Initialized the condVar: {} @ {}", retVal, hEvent.eCondVar.getPointer());
-
-        setEventHandle(hEvent);
+        this.event = hEvent;
+        setEventHandle(hEvent.getEventHandle());
     }
 
     @Override
@@ -37,34 +51,28 @@ public class EventNotificationHandlerLinux extends AbstractEventNotificationHand
     }
 
     @Override
-    protected void waitForNotificationEvent(FTDevice ftDevice) throws FTD2XXException {
+    protected void waitForNotificationEvent(final FTDevice ftDevice) throws FTD2XXException {
+        final PThreadEvent hEvent = this.event;
+        if (hEvent == null) {
+            return;
+        }
 
-        int retVal = libPThreadExt.pthread_mutex_lock(eventHandle.eMutex.getPointer());
-        LOGGER.trace("Locked the mutex: {}", retVal);
-        retVal = libPThreadExt.pthread_cond_wait(eventHandle.eCondVar.getPointer(), eventHandle.eMutex.getPointer());
+        int retVal = hEvent.await(maxWaitMillis, () -> ftDevice.getQueueStatus() > 0);
         LOGGER.trace("Wait on cond: {}", retVal);
-
-        if (eventHandle != null) {
-            retVal = libPThreadExt.pthread_mutex_unlock(eventHandle.eMutex.getPointer());
-            LOGGER.trace("Unlocked the mutex: {}", retVal);
-        }
     }
 
     @Override
     protected void closeHandle() {
         LOGGER.info("Close the handle: {}", eventHandle);
 
-        if (eventHandle != null) {
+        if (event != null) {
 
-            EVENT_HANDLE hEvent = this.eventHandle;
+            PThreadEvent hEvent = this.event;
+            this.event = null;
             this.eventHandle = null;
 
-            int retVal = libPThreadExt.pthread_cond_signal(hEvent.eCondVar.getPointer());
-            LOGGER.info("Signal the cond: {}", retVal);
-
-            libPThreadExt.pthread_cond_destroy(hEvent.eCondVar.getPointer());
-            libPThreadExt.pthread_mutex_destroy(hEvent.eMutex.getPointer());
-            eventHandle = null;
+            hEvent.signal();
+            hEvent.destroy();
         }
     }
 
@@ -0,0 +1,342 @@
+package com.ftdi.handler;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ftdi.DeviceQueueStatus;
+import com.ftdi.FTD2XX;
+import com.ftdi.FTD2XXException;
+import com.ftdi.FTDevice;
+import com.ftdi.utils.ThreadFactories;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.unix.PThreadEvent;
+
+/**
+ * Event loop that services many devices with a single thread. One event handle is registered with every device, so
+ * the loop wakes up whenever any of the devices signals an event. On every wakeup the status of all registered devices
+ * is polled and the received data is dispatched to the listener of the device.
+ * <p>
+ * The listeners are called on the loop thread and must not block. To spread a large number of devices over a small
+ * number of threads, create several loops and register a subset of the devices with each loop.
+ */
+public class MultiDeviceEventLoopLinux implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiDeviceEventLoopLinux.class);
+
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 100;
+
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private static final int EVENT_MASK =
+        FTD2XX.NotificationEvents.FT_EVENT_RXCHAR | FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS;
+
+    /**
+     * Listener that is notified about the data and the modem status changes of a registered device.
+     */
+    public interface DeviceListener {
+
+        /**
+         * Called when data was received from the device.
+         *
+         * @param ftDevice
+         *            the device
+         * @param data
+         *            the received data, only valid during the call
+         */
+        void dataReceived(FTDevice ftDevice, ByteBuffer data);
+
+        /**
+         * Called when the modem or line status of the device has changed.
+         *
+         * @param ftDevice
+         *            the device
+         * @param modemStatus
+         *            the modem and line status, see {@link com.ftdi.ModemStatus}
+         */
+        default void modemStatusChanged(FTDevice ftDevice, int modemStatus) {
+        }
+
+        /**
+         * Called when accessing the device failed. The device is unregistered from the loop before the call.
+         *
+         * @param ftDevice
+         *            the device
+         * @param ex
+         *            the cause
+         */
+        default void failed(FTDevice ftDevice, FTD2XXException ex) {
+        }
+    }
+
+    private static final class Registration {
+
+        private final FTDevice ftDevice;
+
+        private final DeviceListener listener;
+
+        private final DeviceQueueStatus status = new DeviceQueueStatus();
+
+        private final ByteBuffer buffer;
+
+        private Registration(FTDevice ftDevice, DeviceListener listener, int bufferSize) {
+            this.ftDevice = ftDevice;
+            this.listener = listener;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+    }
+
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    // guards the check for a registered device and the add, the loop iterates the registrations without the lock
+    private final Object registrationLock = new Object();
+
+    private final PThreadEvent eventHandle;
+
+    private final int bufferSize;
+
+    private volatile long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+    private ThreadFactory threadFactory = ThreadFactories.platformThreadFactory("FTDI-EventLoop", true);
+
+    private volatile boolean running;
+
+    private Thread loopThread;
+
+    private boolean closed;
+
+    /**
+     * Create a new event loop with the default read buffer size per device.
+     */
+    public MultiDeviceEventLoopLinux() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a new event loop.
+     *
+     * @param bufferSize
+     *            the size of the read buffer that is allocated for every registered device
+     */
+    public MultiDeviceEventLoopLinux(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size must be positive!");
+        }
+        this.bufferSize = bufferSize;
+
+        eventHandle = new PThreadEvent();
+        LOGGER.info("Initialized the event handle @ {}", eventHandle.getPointer());
+    }
+
+    /**
+     * Set the upper bound of a single wait for the notification event. If the event is not signaled within this time,
+     * the loop polls the devices again.
+     *
+     * @param maxWaitMillis
+     *            the maximum time to wait in milliseconds
+     */
+    public void setMaxWaitTime(long maxWaitMillis) {
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("The maximum wait time must be positive!");
+        }
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Set the factory that creates the loop thread. Must be called before {@link #start()}.
+     *
+     * @param threadFactory
+     *            the thread factory
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Register an opened device with the loop.
+     *
+     * @param ftDevice
+     *            the device
+     * @param listener
+     *            the listener that receives the data of the device
+     * @throws FTD2XXException
+     *             if the event notification could not be set
+     */
+    public void register(FTDevice ftDevice, DeviceListener listener) throws FTD2XXException {
+        synchronized (registrationLock) {
+            for (Registration registration : registrations) {
+                if (registration.ftDevice == ftDevice) {
+                    throw new IllegalStateException("The device is already registered: " + ftDevice);
+                }
+            }
+
+            LOGGER.info("SetEventNotification for device: {}, event-handle @ {}", ftDevice, eventHandle.getPointer());
+            ftDevice.SetEventNotification(eventHandle.getPointer(), EVENT_MASK);
+
+            registrations.add(new Registration(ftDevice, listener, bufferSize));
+        }
+        signal();
+    }
+
+    /**
+     * Unregister a device from the loop. The event notification of the device is disabled.
+     *
+     * @param ftDevice
+     *            the device
+     */
+    public void unregister(FTDevice ftDevice) {
+        for (Registration registration : registrations) {
+            if (registration.ftDevice == ftDevice) {
+                remove(registration);
+            }
+        }
+    }
+
+    /**
+     * @return the number of registered devices
+     */
+    public int getDeviceCount() {
+        return registrations.size();
+    }
+
+    /**
+     * Start the loop thread.
+     */
+    public synchronized void start() {
+        if (closed || loopThread != null) {
+            throw new IllegalStateException("The event loop is already started or closed.");
+        }
+        running = true;
+        loopThread = threadFactory.newThread(this::runLoop);
+        loopThread.start();
+    }
+
+    private void runLoop() {
+        LOGGER.info("The event loop has started.");
+
+        while (running) {
+            try {
+                waitForNotificationEvent();
+                if (running) {
+                    sweep();
+                }
+            }
+            catch (Exception ex) {
+                LOGGER.warn("Process devices in event loop failed.", ex);
+            }
+        }
+
+        LOGGER.info("The event loop has finished.");
+    }
+
+    private void waitForNotificationEvent() {
+        int retVal = eventHandle.await(maxWaitMillis, () -> !running || isDataAvailable());
+        LOGGER.trace("Wait on cond: {}", retVal);
+    }
+
+    private boolean isDataAvailable() {
+        for (Registration registration : registrations) {
+            try {
+                if (registration.ftDevice.getQueueStatus() > 0) {
+                    return true;
+                }
+            }
+            catch (FTD2XXException ex) {
+                // the failure is reported by the next sweep
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sweep() {
+        for (Registration registration : registrations) {
+            final FTDevice ftDevice = registration.ftDevice;
+            try {
+                final DeviceQueueStatus status = ftDevice.getStatus(registration.status);
+
+                if (status.isEvent(FTD2XX.NotificationEvents.FT_EVENT_MODEM_STATUS)) {
+                    registration.listener.modemStatusChanged(ftDevice, ftDevice.getModemStatus());
+                }
+
+                int available = status.getAmountInRxQueue();
+                while (available > 0) {
+                    final ByteBuffer buffer = registration.buffer;
+                    buffer.clear();
+                    if (available < buffer.capacity()) {
+                        buffer.limit(available);
+                    }
+
+                    int len = ftDevice.read(buffer);
+                    if (len <= 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    registration.listener.dataReceived(ftDevice, buffer);
+
+                    available -= len;
+                }
+            }
+            catch (FTD2XXException ex) {
+                LOGGER.warn("Access device failed, unregister the device: {}", ftDevice, ex);
+                remove(registration);
+                registration.listener.failed(ftDevice, ex);
+            }
+            catch (RuntimeException ex) {
+                LOGGER.warn("Listener of device failed: {}", ftDevice, ex);
+            }
+        }
+    }
+
+    private void remove(Registration registration) {
+        if (registrations.remove(registration)) {
+            try {
+                registration.ftDevice.SetEventNotification(Pointer.NULL, 0);
+            }
+            catch (FTD2XXException ex) {
+                LOGGER.warn("Disable the event notification failed for device: {}", registration.ftDevice, ex);
+            }
+        }
+    }
+
+    private void signal() {
+        eventHandle.signal();
+    }
+
+    /**
+     * Stop the loop thread, unregister all devices and release the event handle. The devices are not closed.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        LOGGER.info("Close the event loop.");
+
+        running = false;
+        if (loopThread != null) {
+            signal();
+            try {
+                loopThread.join(maxWaitMillis * 10);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (loopThread.isAlive()) {
+                LOGGER.warn("The event loop thread has not finished, keep the event handle.");
+                return;
+            }
+            loopThread = null;
+        }
+
+        for (Registration registration : registrations) {
+            remove(registration);
+        }
+
+        eventHandle.destroy();
+        closed = true;
+    }
+}
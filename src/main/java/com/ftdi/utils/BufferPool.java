@@ -0,0 +1,179 @@
+package com.ftdi.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+/**
+ * Pool of preallocated direct buffers of the same size. The buffers and their leases are allocated once, acquiring and
+ * releasing a buffer does not allocate.
+ * <p>
+ * Every acquire starts a new lease of the buffer that is identified by its {@link PooledBuffer#stamp() stamp}. The
+ * buffer is released with the stamp of the lease, so a late release of an earlier holder does not match the current
+ * lease and cannot return the buffer of the current holder to the pool.
+ */
+public class BufferPool {
+
+    private static final int IN_USE = 0, RETAINED = 1, RELEASED = 2;
+
+    private static final int STATE_BITS = 2, STATE_MASK = (1 << STATE_BITS) - 1;
+
+    private final BlockingQueue<PooledBuffer> available;
+
+    private final int bufferSize;
+
+    private final AtomicLong exhaustedCount = new AtomicLong();
+
+    /**
+     * Create a new pool.
+     *
+     * @param bufferCount
+     *            the number of buffers
+     * @param bufferSize
+     *            the size of each buffer in bytes
+     */
+    public BufferPool(int bufferCount, int bufferSize) {
+        if (bufferCount <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer count and buffer size must be positive!");
+        }
+        this.bufferSize = bufferSize;
+        this.available = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            available.add(new PooledBuffer(this, ByteBuffer.allocateDirect(bufferSize)));
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of buffers currently available in the pool
+     */
+    public int getAvailableCount() {
+        return available.size();
+    }
+
+    /**
+     * @return the number of times a buffer was requested while the pool was empty
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    /**
+     * Acquire a buffer from the pool and wait if no buffer is available.
+     *
+     * @param timeout
+     *            the maximum time to wait
+     * @param unit
+     *            the unit of the timeout
+     * @return the cleared buffer or {@code null} if the timeout has elapsed
+     * @throws InterruptedException
+     *             if the thread was interrupted
+     */
+    public PooledBuffer acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        PooledBuffer buffer = available.poll();
+        if (buffer == null) {
+            exhaustedCount.incrementAndGet();
+            buffer = available.poll(timeout, unit);
+            if (buffer == null) {
+                return null;
+            }
+        }
+        buffer.acquired();
+        return buffer;
+    }
+
+    private void returnToPool(PooledBuffer buffer) {
+        available.offer(buffer);
+    }
+
+    /**
+     * Buffer of a {@link BufferPool}. The lease methods take the stamp of the lease they belong to.
+     */
+    public static final class PooledBuffer implements Lease {
+
+        private final BufferPool pool;
+
+        private final ByteBuffer buffer;
+
+        private final Pointer pointer;
+
+        // the generation of the lease and the state of the buffer
+        private final AtomicLong state = new AtomicLong(RELEASED);
+
+        private PooledBuffer(BufferPool pool, ByteBuffer buffer) {
+            this.pool = pool;
+            this.buffer = buffer;
+            this.pointer = Native.getDirectBufferPointer(buffer);
+        }
+
+        private void acquired() {
+            buffer.clear();
+            // every acquire starts a new generation, the stamps of earlier leases no longer match
+            state.set(((state.get() >>> STATE_BITS) + 1) << STATE_BITS | IN_USE);
+        }
+
+        /**
+         * @return the buffer
+         */
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * @return the native address of the buffer, see {@link com.ftdi.FTDevice#read(ByteBuffer, Pointer)}
+         */
+        public Pointer pointer() {
+            return pointer;
+        }
+
+        /**
+         * @return the stamp of the current lease, must be read by the holder right after the acquire
+         */
+        public long stamp() {
+            return state.get() >>> STATE_BITS;
+        }
+
+        @Override
+        public long retain() {
+            final long current = state.get();
+            if ((current & STATE_MASK) == RELEASED) {
+                throw new IllegalStateException("The buffer was released already.");
+            }
+            final long stamp = current >>> STATE_BITS;
+            state.compareAndSet(current, stamp << STATE_BITS | RETAINED);
+            return stamp;
+        }
+
+        @Override
+        public void release(long stamp) {
+            long current = state.get();
+            while ((current >>> STATE_BITS) == stamp && (current & STATE_MASK) != RELEASED) {
+                if (state.compareAndSet(current, stamp << STATE_BITS | RELEASED)) {
+                    pool.returnToPool(this);
+                    return;
+                }
+                current = state.get();
+            }
+        }
+
+        /**
+         * Return the buffer to the pool unless the lease was retained.
+         *
+         * @param stamp
+         *            the stamp of the lease
+         */
+        public void releaseIfNotRetained(long stamp) {
+            if (state.compareAndSet(stamp << STATE_BITS | IN_USE, stamp << STATE_BITS | RELEASED)) {
+                pool.returnToPool(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.ftdi.utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single producer / single consumer ring buffer for bytes. The producer writes directly into the backing array at
+ * {@link #writeOffset()} and publishes the bytes with {@link #commitWrite(int)}, the consumer reads directly from the
+ * backing array at {@link #readOffset()} and releases the bytes with {@link #commitRead(int)}. No allocation happens
+ * after construction.
+ * <p>
+ * Exactly one thread must act as producer and one thread as consumer.
+ */
+public class ByteRingBuffer {
+
+    private final byte[] buffer;
+
+    private final int mask;
+
+    private volatile long writeIndex;
+
+    private volatile long readIndex;
+
+    private volatile Thread waitingConsumer;
+
+    private volatile Thread waitingProducer;
+
+    /**
+     * Create a new ring buffer.
+     *
+     * @param capacity
+     *            the capacity in bytes, rounded up to the next power of two
+     */
+    public ByteRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the backing array
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * @return the capacity in bytes
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return the number of bytes that can be read
+     */
+    public int size() {
+        return (int) (writeIndex - readIndex);
+    }
+
+    /**
+     * @return the offset in the backing array where the producer writes the next bytes
+     */
+    public int writeOffset() {
+        return (int) (writeIndex & mask);
+    }
+
+    /**
+     * @return the number of bytes the producer can write at {@link #writeOffset()} without wrapping around
+     */
+    public int writableContiguous() {
+        int offset = writeOffset();
+        return Math.min(buffer.length - size(), buffer.length - offset);
+    }
+
+    /**
+     * Publish bytes written by the producer.
+     *
+     * @param count
+     *            the number of bytes written at {@link #writeOffset()}
+     */
+    public void commitWrite(int count) {
+        writeIndex += count;
+
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * @return the offset in the backing array where the consumer reads the next bytes
+     */
+    public int readOffset() {
+        return (int) (readIndex & mask);
+    }
+
+    /**
+     * @return the number of bytes the consumer can read at {@link #readOffset()} without wrapping around
+     */
+    public int readableContiguous() {
+        int offset = readOffset();
+        return Math.min(size(), buffer.length - offset);
+    }
+
+    /**
+     * Release bytes read by the consumer.
+     *
+     * @param count
+     *            the number of bytes read at {@link #readOffset()}
+     */
+    public void commitRead(int count) {
+        readIndex += count;
+
+        Thread producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Wait until bytes can be read. Must be called by the consumer.
+     *
+     * @param timeoutNanos
+     *            the maximum time to wait
+     * @return the number of bytes that can be read, {@code 0} if the timeout has elapsed
+     * @throws InterruptedException
+     *             if the consumer was interrupted
+     */
+    public int awaitReadable(long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        int size;
+        while ((size = size()) == 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return 0;
+            }
+
+            waitingConsumer = Thread.currentThread();
+            if (size() == 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waitingConsumer = null;
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Wait until bytes can be written. Must be called by the producer.
+     *
+     * @param timeoutNanos
+     *            the maximum time to wait
+     * @return the number of bytes that can be written, {@code 0} if the timeout has elapsed
+     * @throws InterruptedException
+     *             if the producer was interrupted
+     */
+    public int awaitWritable(long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        int free;
+        while ((free = buffer.length - size()) == 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return 0;
+            }
+
+            waitingProducer = Thread.currentThread();
+            if (size() == buffer.length) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waitingProducer = null;
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Discard all bytes. Must only be called when producer and consumer are stopped.
+     */
+    public void clear() {
+        readIndex = writeIndex;
+    }
+}
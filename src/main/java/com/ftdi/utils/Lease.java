@@ -0,0 +1,27 @@
+package com.ftdi.utils;
+
+/**
+ * Lease of a pooled buffer that is handed to a callback. The buffer is returned to the pool automatically when the
+ * callback returns, unless the callback calls {@link #retain()} to keep it. A retained buffer must be returned with
+ * {@link #release(long)} and the stamp returned by {@link #retain()}.
+ */
+public interface Lease {
+
+    /**
+     * Keep the buffer after the callback has returned. Must be called during the callback.
+     *
+     * @return the stamp of the lease
+     * @throws IllegalStateException
+     *             if the buffer was released already
+     */
+    long retain();
+
+    /**
+     * Return the buffer to the pool. The buffer must not be used afterwards. Calling this method more than once, or
+     * with the stamp of an earlier lease of the same buffer, has no effect.
+     *
+     * @param stamp
+     *            the stamp of the lease
+     */
+    void release(long stamp);
+}
@@ -0,0 +1,64 @@
+package com.ftdi.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factories for the worker threads of the data handlers.
+ */
+public class ThreadFactories {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadFactories.class);
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Create a factory for platform threads.
+     *
+     * @param name
+     *            the name of the threads
+     * @param daemon
+     *            create daemon threads
+     * @return the factory
+     */
+    public static ThreadFactory platformThreadFactory(final String name, final boolean daemon) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+
+    /**
+     * @return {@code true} if the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return virtualThreadFactory("probe") != null;
+    }
+
+    /**
+     * Create a factory for virtual threads. Virtual threads are available since Java 21, the factory is looked up
+     * reflectively because the library is compiled for Java 17.
+     *
+     * @param name
+     *            the name of the threads
+     * @return the factory or {@code null} if the runtime does not support virtual threads
+     */
+    public static ThreadFactory virtualThreadFactory(final String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class);
+            builder = nameMethod.invoke(builder, name);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (ReflectiveOperationException | RuntimeException ex) {
+            LOGGER.debug("Virtual threads are not supported by the runtime.", ex);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ftdi.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel for a large number of short timeouts that are usually cancelled before they expire. Scheduling
+ * and cancelling are O(1) and lock free, the timeouts are expired by a single worker thread with the resolution of one
+ * tick.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+
+    private final ArrayDeque<Timeout>[] buckets;
+
+    private final int mask;
+
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final long startTime;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    /**
+     * Create a new timing wheel and start its worker thread.
+     *
+     * @param tickDuration
+     *            the duration of a tick
+     * @param unit
+     *            the unit of the tick duration
+     * @param ticksPerWheel
+     *            the number of buckets, rounded up to the next power of two
+     * @param threadFactory
+     *            the factory for the worker thread
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, ThreadFactory threadFactory) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive!");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 20)) {
+            throw new IllegalArgumentException("The ticks per wheel must be between 1 and 2^20: " + ticksPerWheel);
+        }
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.buckets = new ArrayDeque[size];
+        for (int index = 0; index < size; index++) {
+            buckets[index] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+
+        this.startTime = System.nanoTime();
+        this.worker = threadFactory.newThread(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task
+     *            the task that is run on the worker thread when the timeout expires, must not block
+     * @param delay
+     *            the delay
+     * @param unit
+     *            the unit of the delay
+     * @return the timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("The timing wheel is closed.");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            final long deadline = (tick + 1) * tickNanos;
+            long sleepNanos;
+            while (running && (sleepNanos = deadline - (System.nanoTime() - startTime)) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            if (!running) {
+                break;
+            }
+
+            transferNewTimeouts(tick);
+            expireTimeouts(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+        LOGGER.debug("The timing wheel has stopped.");
+    }
+
+    private void transferNewTimeouts(long tick) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / buckets.length;
+
+            // a timeout that is already due is expired with the current tick
+            long ticks = Math.max(calculated, tick);
+            buckets[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            }
+            else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            }
+            else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Stop the worker thread. Timeouts that have not expired are not run.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        if (Thread.currentThread() != worker) {
+            try {
+                worker.join(1000);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout.
+         *
+         * @return {@code true} if the timeout was cancelled, {@code false} if it has expired or was cancelled already
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        /**
+         * @return {@code true} if the timeout was cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * @return {@code true} if the timeout has expired and the task was run
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    task.run();
+                }
+                catch (Exception ex) {
+                    LOGGER.warn("The timeout task failed.", ex);
+                }
+            }
+        }
+    }
+}
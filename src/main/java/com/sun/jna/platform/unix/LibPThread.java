@@ -11,6 +11,11 @@ public interface LibPThread extends Library {
 
     String NAME = "pthread";
 
+    /**
+     * Error number returned by {@link #pthread_cond_timedwait(Pointer, Pointer, Pointer)} on timeout (Linux).
+     */
+    int ETIMEDOUT = 110;
+
     LibPThread INSTANCE = Native.load(NAME, LibPThread.class);
 
     @FieldOrder({ "eCondVar", "eMutex", "iVar" })
@@ -35,6 +40,37 @@ public interface LibPThread extends Library {
         }
     }
 
+    /**
+     * The size of a {@code struct timespec} that consists of {@code time_t tv_sec} and {@code long tv_nsec}. Both
+     * fields have the size of a native long on Linux.
+     *
+     * @return the size in bytes
+     */
+    static int timespecSize() {
+        return 2 * Native.LONG_SIZE;
+    }
+
+    /**
+     * Write an absolute time into a {@code struct timespec}.
+     *
+     * @param timespec
+     *            pointer to the timespec, see {@link #timespecSize()}
+     * @param epochMillis
+     *            the time in milliseconds since the epoch
+     */
+    static void setTimespec(Pointer timespec, long epochMillis) {
+        long seconds = epochMillis / 1000;
+        long nanos = (epochMillis % 1000) * 1_000_000L;
+        if (Native.LONG_SIZE == 8) {
+            timespec.setLong(0, seconds);
+            timespec.setLong(8, nanos);
+        }
+        else {
+            timespec.setInt(0, (int) seconds);
+            timespec.setInt(4, (int) nanos);
+        }
+    }
+
     @FieldOrder({ "mutex" })
     public static class pthread_mutex_t extends Structure {
 
@@ -91,6 +127,20 @@ public interface LibPThread extends Library {
 
     int pthread_cond_wait(Pointer cond, Pointer mutex);
 
+    /**
+     * Wait on the condition until it is signaled or the absolute time has passed.
+     *
+     * @param cond
+     *            the condition
+     * @param mutex
+     *            the locked mutex
+     * @param abstime
+     *            pointer to a {@code struct timespec} with the absolute time based on {@code CLOCK_REALTIME}, see
+     *            {@link #timespecSize()}
+     * @return 0 if signaled, {@link #ETIMEDOUT} if the time has passed, otherwise an error number
+     */
+    int pthread_cond_timedwait(Pointer cond, Pointer mutex, Pointer abstime);
+
     int pthread_cond_signal(Pointer cond);
 
     int pthread_cond_destroy(Pointer cond);
@@ -0,0 +1,130 @@
+package com.sun.jna.platform.unix;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.unix.LibPThread.EVENT_HANDLE;
+
+/**
+ * Event handle for the event notification of the driver on Linux. The driver signals the condition of the handle from
+ * its reader thread while holding the mutex of the handle, so the wakeup condition of the waiting thread is checked
+ * before the mutex is taken and only a flag is tested under the mutex. A {@link #signal()} is never lost, a
+ * notification of the driver between the check and the wait is picked up when the bounded wait returns.
+ * <p>
+ * Only one thread may wait at a time, signaling is allowed from any thread.
+ */
+public class PThreadEvent {
+
+    /**
+     * The condition that is checked before the wait.
+     *
+     * @param <E>
+     *            the exception type of the check
+     */
+    @FunctionalInterface
+    public interface WakeupCondition<E extends Exception> {
+
+        /**
+         * @return {@code true} if the caller must not wait
+         * @throws E
+         *             if the check failed
+         */
+        boolean isMet() throws E;
+    }
+
+    private final LibPThread libPThread = LibPThread.INSTANCE;
+
+    private final EVENT_HANDLE eventHandle = new EVENT_HANDLE();
+
+    private final Memory abstime = new Memory(LibPThread.timespecSize());
+
+    // set by signal() under the mutex, cleared by the waiting thread
+    private boolean signaled;
+
+    /**
+     * Create the event handle and initialize its mutex and condition.
+     */
+    public PThreadEvent() {
+        int retVal = libPThread.pthread_mutex_init(eventHandle.eMutex.getPointer(), Pointer.NULL);
+        if (retVal != 0) {
+            throw new IllegalStateException("Initialize the mutex failed: " + retVal);
+        }
+        retVal = libPThread.pthread_cond_init(eventHandle.eCondVar.getPointer(), Pointer.NULL);
+        if (retVal != 0) {
+            libPThread.pthread_mutex_destroy(eventHandle.eMutex.getPointer());
+            throw new IllegalStateException("Initialize the condition failed: " + retVal);
+        }
+    }
+
+    /**
+     * @return the event handle
+     */
+    public EVENT_HANDLE getEventHandle() {
+        return eventHandle;
+    }
+
+    /**
+     * @return the pointer to the event handle that is passed to the driver
+     */
+    public Pointer getPointer() {
+        return eventHandle.getPointer();
+    }
+
+    /**
+     * Wait until the event is signaled or the timeout has elapsed, unless the condition is met already.
+     *
+     * @param timeoutMillis
+     *            the maximum time to wait in milliseconds
+     * @param condition
+     *            the condition that is checked before the wait, without holding the mutex. Check the queue status of
+     *            the devices rather than the event status, because reading the event status would reset it.
+     * @param <E>
+     *            the exception type of the condition
+     * @return {@code -1} if the condition was met, {@code 0} if the event was signaled, {@link LibPThread#ETIMEDOUT}
+     *         if the timeout has elapsed, otherwise an error number
+     * @throws E
+     *             if the check of the condition failed
+     */
+    public <E extends Exception> int await(long timeoutMillis, WakeupCondition<E> condition) throws E {
+        // the driver takes the mutex to signal, so the native calls of the check must not run under the mutex
+        if (condition.isMet()) {
+            return -1;
+        }
+
+        libPThread.pthread_mutex_lock(eventHandle.eMutex.getPointer());
+        try {
+            if (signaled) {
+                return 0;
+            }
+
+            LibPThread.setTimespec(abstime, System.currentTimeMillis() + timeoutMillis);
+            return libPThread
+                .pthread_cond_timedwait(eventHandle.eCondVar.getPointer(), eventHandle.eMutex.getPointer(), abstime);
+        }
+        finally {
+            signaled = false;
+            libPThread.pthread_mutex_unlock(eventHandle.eMutex.getPointer());
+        }
+    }
+
+    /**
+     * Wake up the waiting thread.
+     */
+    public void signal() {
+        libPThread.pthread_mutex_lock(eventHandle.eMutex.getPointer());
+        try {
+            signaled = true;
+            libPThread.pthread_cond_signal(eventHandle.eCondVar.getPointer());
+        }
+        finally {
+            libPThread.pthread_mutex_unlock(eventHandle.eMutex.getPointer());
+        }
+    }
+
+    /**
+     * Destroy the condition and the mutex. The event must not be registered with a device and no thread may wait.
+     */
+    public void destroy() {
+        libPThread.pthread_cond_destroy(eventHandle.eCondVar.getPointer());
+        libPThread.pthread_mutex_destroy(eventHandle.eMutex.getPointer());
+    }
+}
@@ -0,0 +1,35 @@
+package com.ftdi;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DeviceStatusTest {
+
+    @Test
+    public void parseModemStatus() {
+        EnumSet<DeviceStatus> status = DeviceStatus.parseToEnumset(ModemStatus.CTS | ModemStatus.DSR);
+
+        Assertions.assertEquals(EnumSet.of(DeviceStatus.CTS, DeviceStatus.DSR), status);
+    }
+
+    @Test
+    public void parseLineStatus() {
+        // break interrupt in the line status byte must not be reported as CTS
+        int value = 0x10 << 8 | 0x08 << 8;
+        EnumSet<DeviceStatus> status = DeviceStatus.parseToEnumset(value);
+
+        Assertions.assertEquals(EnumSet.of(DeviceStatus.BI, DeviceStatus.FE), status);
+        Assertions.assertFalse(ModemStatus.isCts(value));
+        Assertions.assertTrue(ModemStatus.isBreakInterrupt(value));
+        Assertions.assertTrue(ModemStatus.hasLineError(value));
+        Assertions.assertEquals(0, ModemStatus.modemStatus(value));
+        Assertions.assertEquals(0x18, ModemStatus.lineStatus(value));
+    }
+
+    @Test
+    public void parseEmpty() {
+        Assertions.assertTrue(DeviceStatus.parseToEnumset(0).isEmpty());
+    }
+}
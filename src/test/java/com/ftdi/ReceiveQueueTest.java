@@ -0,0 +1,54 @@
+package com.ftdi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ReceiveQueueTest {
+
+    @Test
+    public void dropOldest() throws Exception {
+        ReceiveQueue queue = new ReceiveQueue(2, 100, OverflowPolicy.DROP_OLDEST);
+
+        Assertions.assertTrue(queue.offer(new byte[] { 1 }, 0));
+        Assertions.assertTrue(queue.offer(new byte[] { 2 }, 0));
+        Assertions.assertTrue(queue.offer(new byte[] { 3 }, 0));
+
+        Assertions.assertArrayEquals(new byte[] { 2 }, queue.take());
+        Assertions.assertArrayEquals(new byte[] { 3 }, queue.take());
+        Assertions.assertEquals(1, queue.getDroppedChunks());
+        Assertions.assertEquals(1, queue.getDroppedBytes());
+        Assertions.assertEquals(2, queue.getHighWaterChunks());
+    }
+
+    @Test
+    public void dropNewestByBytes() throws Exception {
+        ReceiveQueue queue = new ReceiveQueue(10, 4, OverflowPolicy.DROP_NEWEST);
+
+        Assertions.assertTrue(queue.offer(new byte[3], 0));
+        Assertions.assertFalse(queue.offer(new byte[2], 0));
+
+        Assertions.assertEquals(3, queue.getHighWaterBytes());
+        Assertions.assertEquals(2, queue.getDroppedBytes());
+        Assertions.assertEquals(3, queue.take().length);
+        Assertions.assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void oversizedChunkIsAcceptedWhenEmpty() throws Exception {
+        ReceiveQueue queue = new ReceiveQueue(10, 4, OverflowPolicy.FAIL);
+
+        Assertions.assertTrue(queue.offer(new byte[8], 0));
+        Assertions.assertFalse(queue.offer(new byte[1], 0));
+    }
+
+    @Test
+    public void blockTimesOut() throws Exception {
+        ReceiveQueue queue = new ReceiveQueue(1, 100, OverflowPolicy.BLOCK);
+
+        Assertions.assertTrue(queue.offer(new byte[1], 0));
+        Assertions.assertFalse(queue.offer(new byte[1], TimeUnit.MILLISECONDS.toNanos(10)));
+        Assertions.assertEquals(0, queue.getDroppedChunks());
+    }
+}
@@ -0,0 +1,101 @@
+package com.ftdi;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RequestCorrelatorTest {
+
+    private final List<Integer> written = new ArrayList<>();
+
+    // the request is the sequence number, the response frame is the sequence number followed by the payload
+    private RequestCorrelator<Integer, byte[], Integer> createCorrelator(int maxInFlight, long timeoutMillis) {
+        return new RequestCorrelator<>(written::add, frame -> {
+            byte[] response = new byte[frame.remaining()];
+            frame.get(response);
+            return response;
+        }, request -> request, response -> response[0] & 0xFF, maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void completeOutOfOrder() throws Exception {
+        try (RequestCorrelator<Integer, byte[], Integer> correlator = createCorrelator(4, 1000)) {
+            CompletableFuture<byte[]> first = correlator.send(1);
+            CompletableFuture<byte[]> second = correlator.send(2);
+            Assertions.assertEquals(List.of(1, 2), written);
+            Assertions.assertEquals(2, correlator.getInFlight());
+
+            Assertions.assertTrue(correlator.onResponse(ByteBuffer.wrap(new byte[] { 2, 20 })));
+            Assertions.assertFalse(first.isDone());
+            Assertions.assertTrue(correlator.onResponse(ByteBuffer.wrap(new byte[] { 1, 10 })));
+
+            Assertions.assertArrayEquals(new byte[] { 1, 10 }, first.get());
+            Assertions.assertArrayEquals(new byte[] { 2, 20 }, second.get());
+            Assertions.assertEquals(0, correlator.getInFlight());
+
+            Assertions.assertFalse(correlator.onResponse(ByteBuffer.wrap(new byte[] { 1, 10 })));
+            Assertions.assertEquals(1, correlator.getUnmatchedResponses());
+        }
+    }
+
+    @Test
+    public void requestTimesOut() throws Exception {
+        try (RequestCorrelator<Integer, byte[], Integer> correlator = createCorrelator(1, 30)) {
+            CompletableFuture<byte[]> future = correlator.send(1);
+
+            ExecutionException ex =
+                Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            Assertions.assertTrue(ex.getCause() instanceof TimeoutException);
+            Assertions.assertEquals(1, correlator.getTimedOutRequests());
+
+            // the slot of the timed out request is free again
+            Assertions.assertEquals(0, correlator.getInFlight());
+            correlator.send(2);
+            Assertions.assertEquals(List.of(1, 2), written);
+        }
+    }
+
+    @Test
+    public void fullWindowWaitsForResponse() throws Exception {
+        try (RequestCorrelator<Integer, byte[], Integer> correlator = createCorrelator(1, 1000)) {
+            CompletableFuture<byte[]> first = correlator.send(1);
+
+            Thread responder = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                correlator.complete(new byte[] { 1 });
+            });
+            responder.start();
+
+            // blocks until the response of the first request frees the slot
+            CompletableFuture<byte[]> second = correlator.send(2);
+            responder.join();
+
+            Assertions.assertTrue(first.isDone());
+            Assertions.assertFalse(second.isDone());
+            Assertions.assertEquals(List.of(1, 2), written);
+        }
+    }
+
+    @Test
+    public void duplicateKeyIsRejected() {
+        try (RequestCorrelator<Integer, byte[], Integer> correlator = createCorrelator(4, 1000)) {
+            correlator.send(1);
+            CompletableFuture<byte[]> duplicate = correlator.send(1);
+
+            Assertions.assertTrue(duplicate.isCompletedExceptionally());
+            Assertions.assertEquals(1, correlator.getInFlight());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ftdi.utils.BufferPool;
+import com.ftdi.utils.BufferPool.PooledBuffer;
+
+public class BidibCodecTest {
+
+    private final CollectingFrameHandler frames = new CollectingFrameHandler();
+
+    @Test
+    public void crc8() {
+        Assertions
+            .assertEquals(0xA1, BidibCrc8.calculate(ByteBuffer.wrap("123456789".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    public void encodeEscapesMagicAndEscape() {
+        ByteBuffer out = ByteBuffer.allocate(BidibFrameEncoder.maxEncodedLength(3));
+
+        byte[] message = new byte[] { 0x01, (byte) 0xFE, (byte) 0xFD };
+        int len = new BidibFrameEncoder(false).encode(ByteBuffer.wrap(message), out);
+
+        out.flip();
+        Assertions.assertEquals(len, out.remaining());
+        Assertions.assertEquals(0x01, out.get(0));
+        Assertions.assertEquals((byte) 0xFD, out.get(1));
+        Assertions.assertEquals((byte) 0xDE, out.get(2));
+        Assertions.assertEquals((byte) 0xFD, out.get(3));
+        Assertions.assertEquals((byte) 0xDD, out.get(4));
+        Assertions.assertEquals((byte) 0xFE, out.get(len - 1));
+    }
+
+    @Test
+    public void roundTripAcrossChunks() {
+        byte[] message = new byte[] { 0x05, 0x00, 0x01, (byte) 0xFD, (byte) 0xFE, 0x20, 0x7F };
+        ByteBuffer out = ByteBuffer.allocate(64);
+        new BidibFrameEncoder().encode(ByteBuffer.wrap(message), out);
+        new BidibFrameEncoder().encode(ByteBuffer.wrap(message), out);
+        out.flip();
+
+        BidibFrameDecoder decoder = new BidibFrameDecoder();
+        // feed the packets byte by byte to split escape sequences
+        frames.decodeInChunks(decoder, out, 1);
+
+        Assertions.assertEquals(2, frames.size());
+        Assertions.assertArrayEquals(message, frames.get(0));
+        Assertions.assertArrayEquals(message, frames.get(1));
+        Assertions.assertEquals(0, decoder.getCrcErrors());
+    }
+
+    @Test
+    public void invalidCrcIsDiscarded() {
+        BidibFrameDecoder decoder = new BidibFrameDecoder();
+
+        decoder.decode(ByteBuffer.wrap(new byte[] { (byte) 0xFE, 0x01, 0x02, 0x03, (byte) 0xFE }), frames);
+
+        Assertions.assertTrue(frames.isEmpty());
+        Assertions.assertEquals(1, decoder.getCrcErrors());
+    }
+
+    @Test
+    public void tooLongFrameIsDiscarded() {
+        BidibFrameDecoder decoder = new BidibFrameDecoder(4);
+        ByteBuffer out = ByteBuffer.allocate(64);
+        new BidibFrameEncoder().encode(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }), out);
+        new BidibFrameEncoder().encode(ByteBuffer.wrap(new byte[] { 1, 2 }), out);
+        out.flip();
+
+        decoder.decode(out, frames);
+
+        Assertions.assertEquals(1, frames.size());
+        Assertions.assertArrayEquals(new byte[] { 1, 2 }, frames.get(0));
+        Assertions.assertEquals(1, decoder.getDiscardedFrames());
+    }
+
+    @Test
+    public void encodeIntoPooledBuffer() throws InterruptedException {
+        BufferPool pool = new BufferPool(1, 32);
+
+        PooledBuffer pooledBuffer =
+            new BidibFrameEncoder().encode(ByteBuffer.wrap(new byte[] { 3, 0, 1 }), pool, 10, TimeUnit.MILLISECONDS);
+        Assertions.assertNotNull(pooledBuffer);
+        Assertions.assertEquals(0, pool.getAvailableCount());
+
+        new BidibFrameDecoder().decode(pooledBuffer.buffer(), frames);
+        pooledBuffer.release(pooledBuffer.stamp());
+
+        Assertions.assertArrayEquals(new byte[] { 3, 0, 1 }, frames.get(0));
+        Assertions.assertEquals(1, pool.getAvailableCount());
+    }
+}
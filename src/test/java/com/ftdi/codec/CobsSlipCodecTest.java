@@ -0,0 +1,97 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CobsSlipCodecTest {
+
+    private final CollectingFrameHandler frames = new CollectingFrameHandler();
+
+    @Test
+    public void cobsEncodeExample() {
+        ByteBuffer out = ByteBuffer.allocate(16);
+
+        int len = new CobsFrameEncoder().encode(ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x00, 0x33 }), out);
+
+        out.flip();
+        Assertions.assertEquals(6, len);
+        Assertions.assertEquals(ByteBuffer.wrap(new byte[] { 0x03, 0x11, 0x22, 0x02, 0x33, 0x00 }), out);
+    }
+
+    @Test
+    public void cobsRoundTrip() {
+        Random random = new Random(4711);
+        for (int messageLength : new int[] { 0, 1, 253, 254, 255, 600 }) {
+            byte[] message = new byte[messageLength];
+            random.nextBytes(message);
+            if (messageLength > 10) {
+                message[10] = 0;
+            }
+            ByteBuffer out = ByteBuffer.allocate(CobsFrameEncoder.maxEncodedLength(messageLength));
+            new CobsFrameEncoder().encode(ByteBuffer.wrap(message), out);
+            out.flip();
+
+            frames.clear();
+            frames.decodeInChunks(new CobsFrameDecoder(), out, 7);
+
+            Assertions.assertEquals(1, frames.size(), "length: " + messageLength);
+            Assertions.assertArrayEquals(message, frames.get(0), "length: " + messageLength);
+        }
+    }
+
+    @Test
+    public void cobsNonZeroBlockOf254Bytes() {
+        byte[] message = new byte[254];
+        Arrays.fill(message, (byte) 1);
+        ByteBuffer out = ByteBuffer.allocate(CobsFrameEncoder.maxEncodedLength(message.length));
+
+        int len = new CobsFrameEncoder().encode(ByteBuffer.wrap(message), out);
+        out.flip();
+
+        Assertions.assertEquals(257, len);
+        new CobsFrameDecoder().decode(out, frames);
+        Assertions.assertArrayEquals(message, frames.get(0));
+    }
+
+    @Test
+    public void cobsTruncatedBlockIsInvalid() {
+        CobsFrameDecoder decoder = new CobsFrameDecoder();
+
+        decoder.decode(ByteBuffer.wrap(new byte[] { 0x05, 0x11, 0x00, 0x02, 0x22, 0x00 }), frames);
+
+        Assertions.assertEquals(1, decoder.getInvalidFrames());
+        Assertions.assertEquals(1, frames.size());
+        Assertions.assertArrayEquals(new byte[] { 0x22 }, frames.get(0));
+    }
+
+    @Test
+    public void slipRoundTrip() {
+        byte[] message = new byte[] { 0x01, (byte) 0xC0, 0x02, (byte) 0xDB, (byte) 0xDC, (byte) 0xDD };
+        ByteBuffer out = ByteBuffer.allocateDirect(64);
+        new SlipFrameEncoder().encode(ByteBuffer.wrap(message), out);
+        new SlipFrameEncoder().encode(ByteBuffer.wrap(message), out);
+        out.flip();
+
+        SlipFrameDecoder decoder = new SlipFrameDecoder();
+        frames.decodeInChunks(decoder, out, 1);
+
+        Assertions.assertEquals(2, frames.size());
+        Assertions.assertArrayEquals(message, frames.get(0));
+        Assertions.assertArrayEquals(message, frames.get(1));
+    }
+
+    @Test
+    public void slipTooLongFrameIsDiscarded() {
+        SlipFrameDecoder decoder = new SlipFrameDecoder(2);
+
+        decoder.decode(ByteBuffer.wrap(new byte[] { 1, 2, 3, (byte) 0xC0, 4, (byte) 0xC0 }), frames);
+
+        Assertions.assertEquals(1, decoder.getDiscardedFrames());
+        Assertions.assertEquals(1, frames.size());
+        Assertions.assertArrayEquals(new byte[] { 4 }, frames.get(0));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frame handler for the codec tests that keeps a copy of every decoded frame.
+ */
+class CollectingFrameHandler implements FrameHandler {
+
+    private final List<byte[]> frames = new ArrayList<>();
+
+    @Override
+    public void frameDecoded(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        frames.add(bytes);
+    }
+
+    int size() {
+        return frames.size();
+    }
+
+    boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    byte[] get(int index) {
+        return frames.get(index);
+    }
+
+    /**
+     * @return the frames decoded as ISO-8859-1, so every byte maps to one character
+     */
+    List<String> asStrings() {
+        List<String> strings = new ArrayList<>(frames.size());
+        for (byte[] frame : frames) {
+            strings.add(new String(frame, StandardCharsets.ISO_8859_1));
+        }
+        return strings;
+    }
+
+    void clear() {
+        frames.clear();
+    }
+
+    /**
+     * Pass the encoded bytes to the decoder in chunks of the given size.
+     */
+    void decodeInChunks(FrameDecoder decoder, ByteBuffer encoded, int chunkSize) {
+        while (encoded.hasRemaining()) {
+            ByteBuffer chunk = encoded.slice();
+            chunk.limit(Math.min(chunkSize, chunk.remaining()));
+            decoder.decode(chunk, this);
+            encoded.position(encoded.position() + chunk.limit());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ftdi.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FrameDecoderTest {
+
+    private final CollectingFrameHandler frames = new CollectingFrameHandler();
+
+    private void decode(FrameDecoder decoder, String... chunks) {
+        for (String chunk : chunks) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk.getBytes(StandardCharsets.ISO_8859_1));
+            decoder.decode(buffer, frames);
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void delimiterFramesInOneChunk() {
+        decode(new DelimiterFrameDecoder((byte) '\n', 64), "abc\ndef\n");
+
+        Assertions.assertEquals(List.of("abc\n", "def\n"), frames.asStrings());
+    }
+
+    @Test
+    public void delimiterFrameSplitAcrossChunks() {
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder((byte) '\n', 64, true);
+
+        decode(decoder, "ab", "c", "d\nef", "g\nh");
+
+        Assertions.assertEquals(List.of("abcd", "efg"), frames.asStrings());
+        Assertions.assertEquals(1, decoder.getPendingBytes());
+    }
+
+    @Test
+    public void delimiterFrameTooLongIsDiscarded() {
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder((byte) '\n', 4);
+
+        decode(decoder, "abcdef", "gh\nij\n", "klmnopqrst\nuv\n");
+
+        Assertions.assertEquals(List.of("ij\n", "uv\n"), frames.asStrings());
+        Assertions.assertEquals(2, decoder.getDiscardedFrames());
+    }
+
+    @Test
+    public void fixedLengthFrames() {
+        FixedLengthFrameDecoder decoder = new FixedLengthFrameDecoder(3);
+
+        decode(decoder, "ab", "cdefg", "hi");
+
+        Assertions.assertEquals(List.of("abc", "def", "ghi"), frames.asStrings());
+        Assertions.assertEquals(0, decoder.getPendingBytes());
+    }
+
+    @Test
+    public void lengthFieldFrames() {
+        LengthFieldFrameDecoder decoder = new LengthFieldFrameDecoder(0, 1, 16);
+
+        decode(decoder, "\u0003abc\u0002d", "e\u0000", "\u0001");
+        decode(decoder, "f");
+
+        Assertions.assertEquals(List.of("\u0003abc", "\u0002de", "\u0000", "\u0001f"), frames.asStrings());
+    }
+
+    @Test
+    public void lengthFieldSplitInHeader() {
+        LengthFieldFrameDecoder decoder = new LengthFieldFrameDecoder(1, 2, ByteOrder.LITTLE_ENDIAN, 0, 3, 16);
+
+        decode(decoder, "x\u0002", "\u0000ab", "y\u0001\u0000c");
+
+        Assertions.assertEquals(List.of("ab", "c"), frames.asStrings());
+    }
+
+    @Test
+    public void lengthFieldFrameTooLongIsSkipped() {
+        LengthFieldFrameDecoder decoder = new LengthFieldFrameDecoder(0, 1, 4);
+
+        decode(decoder, "\u0005ab", "cde\u0001z");
+
+        Assertions.assertEquals(List.of("\u0001z"), frames.asStrings());
+        Assertions.assertEquals(1, decoder.getDiscardedFrames());
+    }
+
+    @Test
+    public void resetDiscardsPendingBytes() {
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder((byte) '\n', 64);
+
+        decode(decoder, "abc");
+        decoder.reset();
+        decode(decoder, "def\n");
+
+        Assertions.assertEquals(List.of("def\n"), frames.asStrings());
+    }
+}
@@ -0,0 +1,72 @@
+package com.ftdi.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ftdi.utils.BufferPool.PooledBuffer;
+
+public class BufferPoolTest {
+
+    @Test
+    public void releaseAfterCallback() throws Exception {
+        BufferPool pool = new BufferPool(1, 16);
+
+        PooledBuffer buffer = pool.acquire(0, TimeUnit.MILLISECONDS);
+        Assertions.assertNotNull(buffer);
+        Assertions.assertEquals(0, pool.getAvailableCount());
+
+        long stamp = buffer.stamp();
+        buffer.releaseIfNotRetained(stamp);
+        Assertions.assertEquals(1, pool.getAvailableCount());
+
+        // a second release must not add the buffer twice
+        buffer.release(stamp);
+        Assertions.assertEquals(1, pool.getAvailableCount());
+    }
+
+    @Test
+    public void retainedBufferStaysLeased() throws Exception {
+        BufferPool pool = new BufferPool(1, 16);
+
+        PooledBuffer buffer = pool.acquire(0, TimeUnit.MILLISECONDS);
+        long stamp = buffer.retain();
+        buffer.releaseIfNotRetained(stamp);
+        Assertions.assertEquals(0, pool.getAvailableCount());
+
+        // the pool is exhausted
+        Assertions.assertNull(pool.acquire(1, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, pool.getExhaustedCount());
+
+        buffer.release(stamp);
+        Assertions.assertEquals(1, pool.getAvailableCount());
+        Assertions.assertThrows(IllegalStateException.class, buffer::retain);
+    }
+
+    @Test
+    public void staleReleaseDoesNotReleaseNextLease() throws Exception {
+        BufferPool pool = new BufferPool(1, 16);
+
+        PooledBuffer first = pool.acquire(0, TimeUnit.MILLISECONDS);
+        long firstStamp = first.retain();
+        first.release(firstStamp);
+        PooledBuffer second = pool.acquire(0, TimeUnit.MILLISECONDS);
+        long secondStamp = second.stamp();
+
+        // the lease object is reused, the stamp identifies the lease
+        Assertions.assertSame(first, second);
+        Assertions.assertNotEquals(firstStamp, secondStamp);
+
+        // the earlier holder still has its stamp, it must not affect the current holder
+        first.release(firstStamp);
+        first.releaseIfNotRetained(firstStamp);
+        Assertions.assertEquals(0, pool.getAvailableCount());
+
+        second.retain();
+        second.releaseIfNotRetained(secondStamp);
+        Assertions.assertEquals(0, pool.getAvailableCount());
+        second.release(secondStamp);
+        Assertions.assertEquals(1, pool.getAvailableCount());
+    }
+}
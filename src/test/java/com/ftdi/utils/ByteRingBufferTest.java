@@ -0,0 +1,78 @@
+package com.ftdi.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ByteRingBufferTest {
+
+    @Test
+    public void capacityIsPowerOfTwo() {
+        Assertions.assertEquals(1024, new ByteRingBuffer(1000).capacity());
+        Assertions.assertEquals(1024, new ByteRingBuffer(1024).capacity());
+    }
+
+    @Test
+    public void wrapAround() {
+        ByteRingBuffer ringBuffer = new ByteRingBuffer(8);
+
+        ringBuffer.commitWrite(6);
+        ringBuffer.commitRead(6);
+
+        // only two bytes until the end of the array
+        Assertions.assertEquals(6, ringBuffer.writeOffset());
+        Assertions.assertEquals(2, ringBuffer.writableContiguous());
+
+        ringBuffer.commitWrite(2);
+        Assertions.assertEquals(0, ringBuffer.writeOffset());
+        Assertions.assertEquals(6, ringBuffer.writableContiguous());
+
+        ringBuffer.commitWrite(6);
+        Assertions.assertEquals(8, ringBuffer.size());
+        Assertions.assertEquals(0, ringBuffer.writableContiguous());
+        Assertions.assertEquals(2, ringBuffer.readableContiguous());
+    }
+
+    @Test
+    public void producerConsumer() throws Exception {
+        final ByteRingBuffer ringBuffer = new ByteRingBuffer(64);
+        final int total = 100_000;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            try {
+                int value = 0;
+                while (value < total) {
+                    ringBuffer.awaitWritable(TimeUnit.SECONDS.toNanos(5));
+                    int len = Math.min(ringBuffer.writableContiguous(), Math.min(7, total - value));
+                    int offset = ringBuffer.writeOffset();
+                    for (int i = 0; i < len; i++) {
+                        ringBuffer.array()[offset + i] = (byte) value++;
+                    }
+                    ringBuffer.commitWrite(len);
+                }
+            }
+            catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        producer.start();
+
+        int expected = 0;
+        while (expected < total) {
+            Assertions.assertTrue(ringBuffer.awaitReadable(TimeUnit.SECONDS.toNanos(5)) > 0, "No data received");
+            int len = ringBuffer.readableContiguous();
+            int offset = ringBuffer.readOffset();
+            for (int i = 0; i < len; i++) {
+                Assertions.assertEquals((byte) expected++, ringBuffer.array()[offset + i]);
+            }
+            ringBuffer.commitRead(len);
+        }
+
+        producer.join(5000);
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(0, ringBuffer.size());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ftdi.utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+    @Test
+    public void expireAfterDelay() throws InterruptedException {
+        try (TimingWheel timingWheel =
+            new TimingWheel(1, TimeUnit.MILLISECONDS, 8, ThreadFactories.platformThreadFactory("wheel", true))) {
+            final CountDownLatch expired = new CountDownLatch(1);
+            long start = System.nanoTime();
+
+            // the delay spans more than one round of the wheel
+            TimingWheel.Timeout timeout = timingWheel.schedule(expired::countDown, 20, TimeUnit.MILLISECONDS);
+
+            Assertions.assertTrue(expired.await(1, TimeUnit.SECONDS));
+            Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+            Assertions.assertTrue(timeout.isExpired());
+            Assertions.assertFalse(timeout.cancel());
+        }
+    }
+
+    @Test
+    public void cancelledTimeoutDoesNotExpire() throws InterruptedException {
+        try (TimingWheel timingWheel =
+            new TimingWheel(1, TimeUnit.MILLISECONDS, 8, ThreadFactories.platformThreadFactory("wheel", true))) {
+            final AtomicBoolean run = new AtomicBoolean();
+
+            TimingWheel.Timeout timeout = timingWheel.schedule(() -> run.set(true), 5, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(timeout.cancel());
+
+            Thread.sleep(30);
+            Assertions.assertFalse(run.get());
+            Assertions.assertTrue(timeout.isCancelled());
+        }
+    }
+}